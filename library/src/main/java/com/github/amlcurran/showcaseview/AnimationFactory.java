@@ -19,12 +19,56 @@ package com.github.amlcurran.showcaseview;
 import android.graphics.Point;
 import android.view.View;
 
-interface AnimationFactory {
+/**
+ * Animates a ShowcaseView as it appears, disappears and moves between targets. Supply your own
+ * with {@link ShowcaseView.Builder#setAnimationFactory(AnimationFactory)}
+ */
+public interface AnimationFactory {
+
+    /**
+     * Fade the target in, calling the listener as the fade starts
+     */
     void fadeInView(View target, long duration, AnimationStartListener listener);
 
+    /**
+     * Fade the target out, calling the listener once the fade has finished
+     */
     void fadeOutView(View target, long duration, AnimationEndListener listener);
 
-    void animateTargetToPoint(ShowcaseView showcaseView, Point point);
+    /**
+     * Start moving the showcase to a point in window coordinates, using
+     * {@link ShowcaseView#setShowcasePosition(int, int)}. The ShowcaseView keeps the move it
+     * returns, and retargets or cancels it rather than starting another move alongside it
+     *
+     * @return the move, or null if the showcase was moved without animating
+     */
+    MoveAnimation animateTargetToPoint(ShowcaseView showcaseView, Point point);
+
+    /**
+     * A move started by {@link #animateTargetToPoint(ShowcaseView, Point)}
+     */
+    interface MoveAnimation {
+
+        /**
+         * Move to a different point in window coordinates instead
+         *
+         * @return false if the move can't change where it is going, for instance because it has
+         * finished. It is then cancelled and a new move is started
+         */
+        boolean retarget(int x, int y);
+
+        /**
+         * Stop moving, leaving the showcase where it is
+         */
+        void cancel();
+    }
+
+    /**
+     * Set who is told how smoothly each animation ran. Each animation should report its frames
+     * to the listener when it ends, for instance by attaching a {@link FrameStatsTracker} to its
+     * animator. Animations which aren't reported are missing from the stats
+     */
+    void setAnimationStatsListener(AnimationStatsListener listener);
 
     interface AnimationStartListener {
         void onAnimationStart();
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2014 Alex Curran
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.amlcurran.showcaseview;
+
+import android.support.annotation.IntDef;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Told how smoothly each of a ShowcaseView's animations ran, so janky transitions can be found.
+ * A custom {@link AnimationFactory} is given the listener through
+ * {@link AnimationFactory#setAnimationStatsListener(AnimationStatsListener)}, and can report its
+ * animations with a {@link FrameStatsTracker}.
+ */
+public interface AnimationStatsListener {
+
+    int ANIMATION_FADE_IN = 0;
+    int ANIMATION_FADE_OUT = 1;
+    int ANIMATION_MOVE = 2;
+    int ANIMATION_SCALE = 3;
+
+    @Retention(RetentionPolicy.SOURCE)
+    @IntDef({ANIMATION_FADE_IN, ANIMATION_FADE_OUT, ANIMATION_MOVE, ANIMATION_SCALE})
+    @interface AnimationType {
+    }
+
+    /**
+     * Called when an animation finishes or is cancelled
+     *
+     * @param animation      which animation ran
+     * @param frameCount     the number of frames drawn
+     * @param droppedFrames  the number of frames missed because a frame took too long
+     * @param durationMillis how long the animation ran for
+     */
+    void onAnimationStats(@AnimationType int animation, int frameCount, int droppedFrames,
+                          long durationMillis);
+
+    /**
+     * Empty implementation of AnimationStatsListener such that null checks aren't needed
+     */
+    AnimationStatsListener NONE = new AnimationStatsListener() {
+        @Override
+        public void onAnimationStats(@AnimationType int animation, int frameCount,
+                                     int droppedFrames, long durationMillis) {
+
+        }
+    };
+}
@@ -17,14 +17,16 @@
 package com.github.amlcurran.showcaseview;
 
 import android.animation.AnimatorListenerAdapter;
+import android.content.ContentResolver;
+import android.content.Context;
+import android.os.Build;
 import android.os.Build.VERSION_CODES;
 import android.animation.Animator;
-import android.animation.AnimatorSet;
 import android.animation.ObjectAnimator;
 import android.annotation.TargetApi;
 import android.graphics.Point;
+import android.provider.Settings;
 import android.view.View;
-import android.view.animation.AccelerateDecelerateInterpolator;
 
 @TargetApi(VERSION_CODES.HONEYCOMB)
 class AnimatorAnimationFactory implements AnimationFactory {
@@ -33,48 +35,156 @@ class AnimatorAnimationFactory implements AnimationFactory {
     private static final float INVISIBLE = 0f;
     private static final float VISIBLE = 1f;
 
-    private final AccelerateDecelerateInterpolator interpolator;
+    private AnimationStatsListener statsListener = AnimationStatsListener.NONE;
+    // Fading in and out both animate the alpha, so only one fade runs at a time
+    private ObjectAnimator fadeAnimator;
 
-    public AnimatorAnimationFactory() {
-        interpolator = new AccelerateDecelerateInterpolator();
+    @Override
+    public void setAnimationStatsListener(AnimationStatsListener statsListener) {
+        this.statsListener = statsListener;
     }
 
     @Override
     public void fadeInView(View target, long duration, final AnimationStartListener listener) {
+        if (!areAnimationsEnabled(target.getContext())) {
+            target.setAlpha(VISIBLE);
+            listener.onAnimationStart();
+            return;
+        }
+        cancelFade();
         ObjectAnimator oa = ObjectAnimator.ofFloat(target, ALPHA, INVISIBLE, VISIBLE);
-        oa.setDuration(duration).addListener(new AnimatorListenerAdapter() {
+        oa.setDuration(duration).addListener(new HardwareLayerListener(target) {
 
             @Override
             public void onAnimationStart(Animator animator) {
+                super.onAnimationStart(animator);
                 listener.onAnimationStart();
             }
 
         });
+        trackFrames(oa, target.getContext(), AnimationStatsListener.ANIMATION_FADE_IN);
+        fadeAnimator = oa;
         oa.start();
     }
 
     @Override
     public void fadeOutView(View target, long duration, final AnimationEndListener listener) {
+        if (!areAnimationsEnabled(target.getContext())) {
+            target.setAlpha(INVISIBLE);
+            listener.onAnimationEnd();
+            return;
+        }
+        cancelFade();
         ObjectAnimator oa = ObjectAnimator.ofFloat(target, ALPHA, INVISIBLE);
-        oa.setDuration(duration).addListener(new AnimatorListenerAdapter() {
+        oa.setDuration(duration).addListener(new HardwareLayerListener(target) {
+
+            private boolean cancelled;
+
+            @Override
+            public void onAnimationCancel(Animator animator) {
+                cancelled = true;
+            }
 
             @Override
             public void onAnimationEnd(Animator animator) {
-                listener.onAnimationEnd();
+                super.onAnimationEnd(animator);
+                // A fade out cut short by a fade in hasn't hidden anything
+                if (!cancelled) {
+                    listener.onAnimationEnd();
+                }
             }
 
         });
+        trackFrames(oa, target.getContext(), AnimationStatsListener.ANIMATION_FADE_OUT);
+        fadeAnimator = oa;
         oa.start();
     }
 
+    /**
+     * Stop the fade in flight, so it doesn't fight the new one over the alpha, and its layer is
+     * put back before the new fade sets its own
+     */
+    private void cancelFade() {
+        if (fadeAnimator != null) {
+            fadeAnimator.cancel();
+            fadeAnimator = null;
+        }
+    }
+
+    private void trackFrames(ObjectAnimator animator, Context context,
+                             @AnimationStatsListener.AnimationType int animation) {
+        if (statsListener != AnimationStatsListener.NONE) {
+            FrameStatsTracker tracker = new FrameStatsTracker(context, animation);
+            tracker.setListener(statsListener);
+            tracker.attach(animator);
+        }
+    }
+
+    /**
+     * Moves with a spring, which keeps its velocity when the ShowcaseView retargets it
+     */
     @Override
-    public void animateTargetToPoint(ShowcaseView showcaseView, Point point) {
-        AnimatorSet set = new AnimatorSet();
-        ObjectAnimator xAnimator = ObjectAnimator.ofInt(showcaseView, "showcaseX", point.x);
-        ObjectAnimator yAnimator = ObjectAnimator.ofInt(showcaseView, "showcaseY", point.y);
-        set.playTogether(xAnimator, yAnimator);
-        set.setInterpolator(interpolator);
-        set.start();
+    public MoveAnimation animateTargetToPoint(ShowcaseView showcaseView, Point point) {
+        if (!areAnimationsEnabled(showcaseView.getContext())) {
+            showcaseView.setShowcasePosition(point.x, point.y);
+            return null;
+        }
+        SpotlightTransition transition = new SpotlightTransition(showcaseView, statsListener);
+        transition.animateTo(point.x, point.y);
+        return transition;
+    }
+
+    /**
+     * @return false if the user has turned animations off, by setting the animator duration
+     * scale to 0 in the developer options
+     */
+    @SuppressWarnings("deprecation")
+    @TargetApi(VERSION_CODES.JELLY_BEAN_MR1)
+    static boolean areAnimationsEnabled(Context context) {
+        ContentResolver resolver = context.getContentResolver();
+        float durationScale;
+        if (Build.VERSION.SDK_INT >= VERSION_CODES.JELLY_BEAN_MR1) {
+            durationScale = Settings.Global.getFloat(resolver, Settings.Global.ANIMATOR_DURATION_SCALE, 1f);
+        } else if (Build.VERSION.SDK_INT >= VERSION_CODES.JELLY_BEAN) {
+            durationScale = Settings.System.getFloat(resolver, Settings.System.ANIMATOR_DURATION_SCALE, 1f);
+        } else {
+            // There is no animator duration scale setting before Jelly Bean
+            durationScale = 1f;
+        }
+        return durationScale != 0f;
+    }
+
+    /**
+     * Draws the view into a hardware layer while it fades, so each frame of the fade draws the
+     * layer with a new alpha rather than drawing the view again
+     */
+    private static class HardwareLayerListener extends AnimatorListenerAdapter {
+
+        private final View target;
+        private boolean hasSetLayer;
+        private int previousLayerType;
+
+        HardwareLayerListener(View target) {
+            this.target = target;
+        }
+
+        @Override
+        public void onAnimationStart(Animator animator) {
+            // Without hardware acceleration this would be a software layer, which is slower
+            if (target.isHardwareAccelerated() && target.getLayerType() != View.LAYER_TYPE_HARDWARE) {
+                previousLayerType = target.getLayerType();
+                target.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+                hasSetLayer = true;
+            }
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animator) {
+            if (hasSetLayer) {
+                target.setLayerType(previousLayerType, null);
+                hasSetLayer = false;
+            }
+        }
     }
 
 }
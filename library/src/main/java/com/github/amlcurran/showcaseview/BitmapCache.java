@@ -0,0 +1,82 @@
+/*
+ * Copyright 2014 Alex Curran
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.amlcurran.showcaseview;
+
+import android.graphics.Bitmap;
+import android.support.v4.util.LruCache;
+
+/**
+ * A cache of bitmaps which is limited by the memory they use rather than how many there are.
+ * Its limit is a fraction of the memory available to the app, so it scales with the device
+ */
+class BitmapCache<K> extends LruCache<K, Bitmap> {
+
+    /**
+     * @param memoryFraction the cache may use 1/memoryFraction of the app's maximum memory
+     */
+    BitmapCache(int memoryFraction) {
+        super(fractionOfMemory(memoryFraction));
+    }
+
+    @Override
+    protected int sizeOf(K key, Bitmap value) {
+        return byteCount(value);
+    }
+
+    /**
+     * @return 1/fraction of the most memory the app can use, in bytes
+     */
+    static int fractionOfMemory(int fraction) {
+        return (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / fraction);
+    }
+
+    static int byteCount(Bitmap bitmap) {
+        return bitmap.getRowBytes() * bitmap.getHeight();
+    }
+
+    /**
+     * A key for a bitmap made from a resource, or a colour, at a screen density
+     */
+    static class DensityKey {
+
+        private final int value;
+        private final int densityDpi;
+
+        DensityKey(int value, int densityDpi) {
+            this.value = value;
+            this.densityDpi = densityDpi;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DensityKey)) {
+                return false;
+            }
+            DensityKey key = (DensityKey) o;
+            return value == key.value && densityDpi == key.densityDpi;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * value + densityDpi;
+        }
+    }
+
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2014 Alex Curran
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.amlcurran.showcaseview;
+
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Locale;
+
+/**
+ * A process-wide pool of the bitmaps which ShowcaseViews draw into. When a ShowcaseView is
+ * hidden its bitmap is returned to the pool, so the next ShowcaseView of the same size can
+ * reuse it instead of allocating a new one. The least recently returned bitmaps are dropped
+ * when the pool grows beyond its maximum size. Once no ShowcaseView has been showing for a
+ * short while, the pool is cleared.
+ * <p/>
+ * To free the memory held by the pool sooner, for instance in
+ * {@link android.content.ComponentCallbacks2#onTrimMemory(int)}, call {@link #clear()}.
+ */
+public final class BitmapPool {
+
+    private static final int DEFAULT_MAX_SIZE_FRACTION = 8;
+    // Long enough for the next showcase of a tour to be shown and take its bitmap
+    private static final long UNUSED_CLEAR_DELAY_MILLIS = 1000;
+    private static final BitmapPool INSTANCE = new BitmapPool(BitmapCache.fractionOfMemory(DEFAULT_MAX_SIZE_FRACTION));
+
+    private final LinkedList<Bitmap> bitmaps = new LinkedList<Bitmap>();
+    private int maxSize;
+    private int size;
+    private int hitCount;
+    private int missCount;
+    private int evictionCount;
+    private int showingCount;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable clearWhenUnused = new Runnable() {
+        @Override
+        public void run() {
+            clearIfUnused();
+        }
+    };
+
+    BitmapPool(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public static BitmapPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Take a bitmap out of the pool, or create one if there isn't a matching bitmap. The contents
+     * of a pooled bitmap are undefined, so it should be erased before it is used.
+     */
+    synchronized Bitmap acquire(int width, int height, Bitmap.Config config) {
+        Iterator<Bitmap> iterator = bitmaps.iterator();
+        while (iterator.hasNext()) {
+            Bitmap bitmap = iterator.next();
+            if (bitmap.getWidth() == width && bitmap.getHeight() == height && bitmap.getConfig() == config) {
+                iterator.remove();
+                size -= BitmapCache.byteCount(bitmap);
+                hitCount++;
+                return bitmap;
+            }
+        }
+        missCount++;
+        return Bitmap.createBitmap(width, height, config);
+    }
+
+    /**
+     * Give a bitmap back to the pool. The bitmap must not be used again by the caller.
+     */
+    synchronized void release(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled() || !bitmap.isMutable()) {
+            return;
+        }
+        int bitmapSize = BitmapCache.byteCount(bitmap);
+        if (bitmapSize > maxSize) {
+            bitmap.recycle();
+            return;
+        }
+        bitmaps.addFirst(bitmap);
+        size += bitmapSize;
+        trimToSize(maxSize);
+    }
+
+    /**
+     * Called when a ShowcaseView starts showing, so the pool isn't cleared while it is needed
+     */
+    synchronized void onShowcaseShown() {
+        showingCount++;
+        handler.removeCallbacks(clearWhenUnused);
+    }
+
+    /**
+     * Called when a ShowcaseView stops showing. When it was the last one, the pool is cleared
+     * unless another ShowcaseView is shown soon after
+     */
+    synchronized void onShowcaseHidden() {
+        showingCount = Math.max(0, showingCount - 1);
+        if (showingCount == 0) {
+            handler.removeCallbacks(clearWhenUnused);
+            handler.postDelayed(clearWhenUnused, UNUSED_CLEAR_DELAY_MILLIS);
+        }
+    }
+
+    private synchronized void clearIfUnused() {
+        if (showingCount == 0) {
+            trimToSize(0);
+        }
+    }
+
+    private void trimToSize(int maxSize) {
+        while (size > maxSize && !bitmaps.isEmpty()) {
+            Bitmap eldest = bitmaps.removeLast();
+            size -= BitmapCache.byteCount(eldest);
+            eldest.recycle();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Set the maximum number of bytes the pool holds on to. The default is an eighth of the
+     * maximum heap size
+     */
+    public synchronized void setMaxSize(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("BitmapPool max size must not be negative");
+        }
+        this.maxSize = maxSize;
+        trimToSize(maxSize);
+    }
+
+    /**
+     * Drop, and recycle, all of the bitmaps in the pool
+     */
+    public synchronized void clear() {
+        trimToSize(0);
+    }
+
+    public synchronized int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return the number of bytes held by bitmaps in the pool
+     */
+    public synchronized int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the number of times a bitmap was reused from the pool
+     */
+    public synchronized int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return the number of times a new bitmap had to be created
+     */
+    public synchronized int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the number of bitmaps dropped from the pool to keep it within its maximum size
+     */
+    public synchronized int getEvictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        int accesses = hitCount + missCount;
+        int hitPercent = accesses != 0 ? (100 * hitCount / accesses) : 0;
+        return String.format(Locale.US, "BitmapPool[size=%d,maxSize=%d,hits=%d,misses=%d,evictions=%d,hitRate=%d%%]",
+                size, maxSize, hitCount, missCount, evictionCount, hitPercent);
+    }
+
+}
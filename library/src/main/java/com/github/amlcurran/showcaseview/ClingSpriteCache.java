@@ -0,0 +1,67 @@
+/*
+ * Copyright 2014 Alex Curran
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.amlcurran.showcaseview;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.PorterDuff;
+import android.graphics.drawable.Drawable;
+import android.support.annotation.ColorInt;
+import android.support.v4.content.res.ResourcesCompat;
+
+/**
+ * Process-wide cache of the holo "cling" showcase, decoded at the screen density and already
+ * tinted with the showcase colour. Holo showcases can then be created without decoding the
+ * drawable, and drawn without a colour filter.
+ */
+class ClingSpriteCache {
+
+    private static final int MAX_SIZE_FRACTION = 16;
+    private static final BitmapCache<BitmapCache.DensityKey> SPRITES =
+            new BitmapCache<BitmapCache.DensityKey>(MAX_SIZE_FRACTION);
+
+    /**
+     * Get the cling, tinted with a colour. The returned bitmap is shared, so must not be modified
+     */
+    static Bitmap getSprite(Resources resources, Resources.Theme theme, @ColorInt int colour) {
+        // The cling is a plain bitmap resource, so only the density changes how it is decoded. The
+        // theme isn't part of the key, which lets showcases in different activities share sprites
+        BitmapCache.DensityKey key = new BitmapCache.DensityKey(colour, resources.getDisplayMetrics().densityDpi);
+        Bitmap sprite = SPRITES.get(key);
+        if (sprite == null) {
+            sprite = createSprite(resources, theme, colour);
+            SPRITES.put(key, sprite);
+        }
+        return sprite;
+    }
+
+    private static Bitmap createSprite(Resources resources, Resources.Theme theme, @ColorInt int colour) {
+        Drawable cling = ResourcesCompat.getDrawable(resources, R.drawable.cling_bleached, theme);
+        if (cling == null) {
+            throw new IllegalStateException("Couldn't load the ShowcaseView cling drawable");
+        }
+        int width = cling.getIntrinsicWidth();
+        int height = cling.getIntrinsicHeight();
+        Bitmap sprite = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        cling.setBounds(0, 0, width, height);
+        cling.setColorFilter(colour, PorterDuff.Mode.MULTIPLY);
+        cling.draw(new Canvas(sprite));
+        return sprite;
+    }
+
+}
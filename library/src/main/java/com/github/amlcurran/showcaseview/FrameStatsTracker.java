@@ -0,0 +1,103 @@
+/*
+ * Copyright 2014 Alex Curran
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.amlcurran.showcaseview;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.os.Build;
+import android.view.WindowManager;
+
+/**
+ * Counts the frames of an animator, and the frames it missed, from the time between its
+ * updates. A gap of more than one display refresh between updates means frames were dropped.
+ * The stats are reported each time the animator ends or is cancelled. A custom
+ * {@link AnimationFactory} can use one to report its animations
+ */
+@TargetApi(Build.VERSION_CODES.HONEYCOMB)
+public class FrameStatsTracker extends AnimatorListenerAdapter implements ValueAnimator.AnimatorUpdateListener {
+
+    private static final float DEFAULT_REFRESH_RATE = 60f;
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private final Context context;
+    @AnimationStatsListener.AnimationType
+    private final int animation;
+    private AnimationStatsListener listener = AnimationStatsListener.NONE;
+
+    private long frameIntervalNanos;
+    private long startTime;
+    private long lastFrameTime;
+    private int frameCount;
+    private int droppedFrames;
+
+    public FrameStatsTracker(Context context, @AnimationStatsListener.AnimationType int animation) {
+        this.context = context;
+        this.animation = animation;
+    }
+
+    /**
+     * Track an animator. The tracker must only be added to one animator
+     */
+    public void attach(ValueAnimator animator) {
+        animator.addListener(this);
+        animator.addUpdateListener(this);
+    }
+
+    /**
+     * Set who the stats from the next run of the animator go to
+     */
+    public void setListener(AnimationStatsListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void onAnimationStart(Animator animator) {
+        frameIntervalNanos = (long) (1000 * NANOS_PER_MILLI / getRefreshRate());
+        startTime = System.nanoTime();
+        lastFrameTime = 0;
+        frameCount = 0;
+        droppedFrames = 0;
+    }
+
+    @Override
+    public void onAnimationUpdate(ValueAnimator animator) {
+        long now = System.nanoTime();
+        // The animator starts between frames, so the first gap doesn't say anything
+        if (lastFrameTime != 0) {
+            int refreshes = Math.round((now - lastFrameTime) / (float) frameIntervalNanos);
+            droppedFrames += Math.max(0, refreshes - 1);
+        }
+        lastFrameTime = now;
+        frameCount++;
+    }
+
+    @Override
+    public void onAnimationEnd(Animator animator) {
+        long durationMillis = (System.nanoTime() - startTime) / NANOS_PER_MILLI;
+        listener.onAnimationStats(animation, frameCount, droppedFrames, durationMillis);
+    }
+
+    private float getRefreshRate() {
+        WindowManager windowManager = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
+        float refreshRate = windowManager.getDefaultDisplay().getRefreshRate();
+        return refreshRate > 0 ? refreshRate : DEFAULT_REFRESH_RATE;
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2014 Alex Curran
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.amlcurran.showcaseview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+import android.graphics.RectF;
+
+/**
+ * Process-wide cache of anti-aliased circle and ring masks, so drawers can stamp a showcase
+ * hole with a single bitmap draw instead of rasterizing circles every frame. Each mask is an
+ * {@link Bitmap.Config#ALPHA_8} bitmap, with the shape centred in it.
+ */
+class HoleMaskCache {
+
+    // Leaves room for the anti-aliased edge
+    private static final int EDGE_PADDING = 1;
+    private static final int MAX_SIZE_FRACTION = 32;
+    private static final BitmapCache<Key> MASKS = new BitmapCache<Key>(MAX_SIZE_FRACTION);
+
+    /**
+     * Get a mask of a filled circle. The returned bitmap is shared, so must not be modified
+     */
+    static Bitmap getCircle(float radius) {
+        return getRing(radius, 0);
+    }
+
+    /**
+     * Get a mask of a ring, which is a circle of the outer radius with a circle of the inner
+     * radius cut out of it. The returned bitmap is shared, so must not be modified
+     */
+    static Bitmap getRing(float outerRadius, float innerRadius) {
+        Key key = new Key(outerRadius, innerRadius);
+        Bitmap mask = MASKS.get(key);
+        if (mask == null) {
+            mask = createMask(outerRadius, innerRadius);
+            MASKS.put(key, mask);
+        }
+        return mask;
+    }
+
+    /**
+     * @return the distance from the edge of a mask to the centre of its shape
+     */
+    static float getCentreOffset(Bitmap mask) {
+        return mask.getWidth() / 2f;
+    }
+
+    /**
+     * Calculate where to draw a mask so its shape is centred on a point, scaled by a factor.
+     * Scaling the cached mask is cheaper than creating a mask for every size during an animation
+     */
+    static void getScaledBounds(Bitmap mask, float x, float y, float scale, RectF outBounds) {
+        float offset = getCentreOffset(mask) * scale;
+        outBounds.set(x - offset, y - offset, x + offset, y + offset);
+    }
+
+    private static Bitmap createMask(float outerRadius, float innerRadius) {
+        int size = 2 * ((int) Math.ceil(outerRadius) + EDGE_PADDING);
+        Bitmap mask = Bitmap.createBitmap(size, size, Bitmap.Config.ALPHA_8);
+        Canvas canvas = new Canvas(mask);
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        float centre = size / 2f;
+        canvas.drawCircle(centre, centre, outerRadius, paint);
+        if (innerRadius > 0) {
+            paint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.CLEAR));
+            canvas.drawCircle(centre, centre, innerRadius, paint);
+        }
+        return mask;
+    }
+
+    private static class Key {
+
+        private final float outerRadius;
+        private final float innerRadius;
+
+        Key(float outerRadius, float innerRadius) {
+            this.outerRadius = outerRadius;
+            this.innerRadius = innerRadius;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Float.compare(key.outerRadius, outerRadius) == 0
+                    && Float.compare(key.innerRadius, innerRadius) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Float.floatToIntBits(outerRadius) + Float.floatToIntBits(innerRadius);
+        }
+    }
+
+}
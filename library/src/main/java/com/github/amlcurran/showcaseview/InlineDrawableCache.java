@@ -0,0 +1,82 @@
+/*
+ * Copyright 2014 Alex Curran
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.amlcurran.showcaseview;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.support.v4.content.res.ResourcesCompat;
+
+/**
+ * Process-wide cache of the images shown inline in showcase text, decoded at the screen density.
+ * A tour which shows the same icon in several showcases only decodes it once. The least recently
+ * used images are dropped once they take up more than a fraction of the heap.
+ */
+class InlineDrawableCache {
+
+    private static final int MAX_SIZE_FRACTION = 32;
+    private static final BitmapCache<BitmapCache.DensityKey> IMAGES =
+            new BitmapCache<BitmapCache.DensityKey>(MAX_SIZE_FRACTION);
+
+    /**
+     * Get a drawable resource as a drawable ready to go in an ImageSpan, with its bounds set to
+     * its intrinsic size. Drawables share their bitmap, which must not be modified
+     *
+     * @return the drawable, or null if it doesn't exist or has no intrinsic size
+     */
+    static Drawable getDrawable(Resources resources, Resources.Theme theme, int resId) {
+        BitmapCache.DensityKey key = new BitmapCache.DensityKey(resId, resources.getDisplayMetrics().densityDpi);
+        Bitmap image = IMAGES.get(key);
+        if (image == null) {
+            image = decode(resources, theme, resId);
+            if (image == null) {
+                return null;
+            }
+            IMAGES.put(key, image);
+        }
+        BitmapDrawable drawable = new BitmapDrawable(resources, image);
+        drawable.setBounds(0, 0, image.getWidth(), image.getHeight());
+        return drawable;
+    }
+
+    private static Bitmap decode(Resources resources, Resources.Theme theme, int resId) {
+        Drawable drawable;
+        try {
+            drawable = ResourcesCompat.getDrawable(resources, resId, theme);
+        } catch (Resources.NotFoundException e) {
+            return null;
+        }
+        if (drawable == null) {
+            return null;
+        }
+        if (drawable instanceof BitmapDrawable) {
+            return ((BitmapDrawable) drawable).getBitmap();
+        }
+        int width = drawable.getIntrinsicWidth();
+        int height = drawable.getIntrinsicHeight();
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+        Bitmap image = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        drawable.setBounds(0, 0, width, height);
+        drawable.draw(new Canvas(image));
+        return image;
+    }
+
+}
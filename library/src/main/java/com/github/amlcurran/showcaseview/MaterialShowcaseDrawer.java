@@ -6,21 +6,21 @@ import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.PorterDuff;
 import android.graphics.PorterDuffXfermode;
+import android.graphics.Rect;
+import android.graphics.RectF;
 
-public class MaterialShowcaseDrawer implements ShowcaseDrawer {
+public class MaterialShowcaseDrawer implements ShowcaseDrawer, ShowcaseRenderer {
 
     private final float radius;
     private final Paint basicPaint;
-    private final Paint eraserPaint;
+    private final Paint holePaint;
+    private final RectF holeBounds = new RectF();
     private int backgroundColor;
 
     public MaterialShowcaseDrawer(Resources resources) {
         this.radius = resources.getDimension(R.dimen.showcase_radius_material);
-        this.eraserPaint = new Paint();
-        this.eraserPaint.setColor(0xFFFFFF);
-        this.eraserPaint.setAlpha(0);
-        this.eraserPaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.MULTIPLY));
-        this.eraserPaint.setAntiAlias(true);
+        this.holePaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+        this.holePaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.DST_OUT));
         this.basicPaint = new Paint();
     }
 
@@ -31,8 +31,31 @@ public class MaterialShowcaseDrawer implements ShowcaseDrawer {
 
     @Override
     public void drawShowcase(Bitmap buffer, float x, float y, float scaleMultiplier) {
-        Canvas bufferCanvas = new Canvas(buffer);
-        bufferCanvas.drawCircle(x, y, radius, eraserPaint);
+        drawShowcase(new Canvas(buffer), x, y, scaleMultiplier);
+    }
+
+    @Override
+    public void draw(Canvas canvas, float x, float y, float scaleMultiplier) {
+        erase(canvas);
+        drawShowcase(canvas, x, y, scaleMultiplier);
+    }
+
+    private void drawShowcase(Canvas canvas, float x, float y, float scaleMultiplier) {
+        if (scaleMultiplier <= 0) {
+            return;
+        }
+        // Stamping a cached mask is much cheaper than rasterizing an anti-aliased circle
+        Bitmap hole = HoleMaskCache.getCircle(radius);
+        HoleMaskCache.getScaledBounds(hole, x, y, scaleMultiplier, holeBounds);
+        canvas.drawBitmap(hole, null, holeBounds, holePaint);
+    }
+
+    @Override
+    public boolean getDamageBounds(float x, float y, float scaleMultiplier, Rect outBounds) {
+        float scaledRadius = radius * Math.max(1f, scaleMultiplier);
+        outBounds.set((int) Math.floor(x - scaledRadius), (int) Math.floor(y - scaledRadius),
+                (int) Math.ceil(x + scaledRadius), (int) Math.ceil(y + scaledRadius));
+        return true;
     }
 
     @Override
@@ -60,6 +83,25 @@ public class MaterialShowcaseDrawer implements ShowcaseDrawer {
         bitmapBuffer.eraseColor(backgroundColor);
     }
 
+    private void erase(Canvas canvas) {
+        canvas.drawColor(backgroundColor, PorterDuff.Mode.SRC);
+    }
+
+    @Override
+    public boolean needsOffscreenBuffer() {
+        return false;
+    }
+
+    @Override
+    public boolean isOpaque() {
+        return false;
+    }
+
+    @Override
+    public boolean isSingleColour() {
+        return true;
+    }
+
     @Override
     public void drawToCanvas(Canvas canvas, Bitmap bitmapBuffer) {
         canvas.drawBitmap(bitmapBuffer, 0, 0, basicPaint);
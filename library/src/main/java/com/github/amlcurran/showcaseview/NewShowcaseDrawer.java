@@ -19,31 +19,91 @@ package com.github.amlcurran.showcaseview;
 import android.content.res.Resources;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+import android.graphics.Rect;
+import android.graphics.RectF;
 
 class NewShowcaseDrawer extends StandardShowcaseDrawer {
 
     private static final int ALPHA_60_PERCENT = 153;
     private final float outerRadius;
     private final float innerRadius;
+    private final Paint holePaint;
+    private final Paint ringPaint;
+    private final boolean canStampMasks;
+    private final RectF maskBounds = new RectF();
+    private int showcaseColour;
 
     public NewShowcaseDrawer(Resources resources, Resources.Theme theme) {
         super(resources, theme);
         outerRadius = resources.getDimension(R.dimen.showcase_radius_outer);
         innerRadius = resources.getDimension(R.dimen.showcase_radius_inner);
+        holePaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+        holePaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.DST_OUT));
+        ringPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+        // PorterDuff.Mode.ADD is only available from Honeycomb
+        canStampMasks = new ApiUtils().isCompatWithHoneycomb();
+        if (canStampMasks) {
+            ringPaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.ADD));
+        }
     }
 
     @Override
     public void setShowcaseColour(int color) {
         eraserPaint.setColor(color);
+        showcaseColour = color;
     }
 
     @Override
-    public void drawShowcase(Bitmap buffer, float x, float y, float scaleMultiplier) {
-        Canvas bufferCanvas = new Canvas(buffer);
-        eraserPaint.setAlpha(ALPHA_60_PERCENT);
-        bufferCanvas.drawCircle(x, y, outerRadius, eraserPaint);
-        eraserPaint.setAlpha(0);
-        bufferCanvas.drawCircle(x, y, innerRadius, eraserPaint);
+    public void drawShowcase(Canvas canvas, float x, float y, float scaleMultiplier) {
+        if (scaleMultiplier <= 0) {
+            return;
+        }
+        if (canStampMasks) {
+            stampShowcase(canvas, x, y, scaleMultiplier);
+        } else {
+            eraserPaint.setAlpha(ALPHA_60_PERCENT);
+            canvas.drawCircle(x, y, outerRadius * scaleMultiplier, eraserPaint);
+            eraserPaint.setAlpha(0);
+            canvas.drawCircle(x, y, innerRadius * scaleMultiplier, eraserPaint);
+        }
+    }
+
+    /**
+     * Draws the same as multiplying the background by the two circles, but with cached masks.
+     * The whole showcase is cut out, then the ring is added back in the colour that multiplying
+     * would have produced. Anti-aliased edges blend exactly as they would with the circles.
+     * While the showcase is scaled, the full size masks are scaled rather than creating new ones
+     */
+    private void stampShowcase(Canvas canvas, float x, float y, float scaleMultiplier) {
+        Bitmap hole = HoleMaskCache.getCircle(outerRadius);
+        Bitmap ring = HoleMaskCache.getRing(outerRadius, innerRadius);
+        HoleMaskCache.getScaledBounds(hole, x, y, scaleMultiplier, maskBounds);
+        canvas.drawBitmap(hole, null, maskBounds, holePaint);
+        ringPaint.setColor(getRingColour());
+        canvas.drawBitmap(ring, null, maskBounds, ringPaint);
+    }
+
+    /**
+     * @return the colour of multiplying the background by the showcase colour at 60% alpha
+     */
+    private int getRingColour() {
+        int alpha = ALPHA_60_PERCENT * Color.alpha(backgroundColour) / 255;
+        return Color.argb(alpha,
+                Color.red(showcaseColour) * Color.red(backgroundColour) / 255,
+                Color.green(showcaseColour) * Color.green(backgroundColour) / 255,
+                Color.blue(showcaseColour) * Color.blue(backgroundColour) / 255);
+    }
+
+    @Override
+    public boolean getDamageBounds(float x, float y, float scaleMultiplier, Rect outBounds) {
+        float radius = outerRadius * Math.max(1f, scaleMultiplier);
+        outBounds.set((int) Math.floor(x - radius), (int) Math.floor(y - radius),
+                (int) Math.ceil(x + radius), (int) Math.ceil(y + radius));
+        return true;
     }
 
     @Override
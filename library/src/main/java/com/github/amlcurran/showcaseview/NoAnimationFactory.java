@@ -5,6 +5,11 @@ import android.view.View;
 
 class NoAnimationFactory implements AnimationFactory {
 
+    @Override
+    public void setAnimationStatsListener(AnimationStatsListener listener) {
+        // Nothing is animated, so there are no frames to report
+    }
+
     @Override
     public void fadeInView(View target, long duration, AnimationStartListener listener) {
         listener.onAnimationStart();
@@ -16,7 +21,8 @@ class NoAnimationFactory implements AnimationFactory {
     }
 
     @Override
-    public void animateTargetToPoint(ShowcaseView showcaseView, Point point) {
+    public MoveAnimation animateTargetToPoint(ShowcaseView showcaseView, Point point) {
         showcaseView.setShowcasePosition(point.x, point.y);
+        return null;
     }
 }
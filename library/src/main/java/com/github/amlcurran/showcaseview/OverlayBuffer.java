@@ -0,0 +1,245 @@
+/*
+ * Copyright 2014 Alex Curran
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.amlcurran.showcaseview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.support.annotation.ColorInt;
+
+import java.util.Arrays;
+
+/**
+ * The offscreen bitmap which the showcase is drawn into when it can't be drawn straight onto
+ * the ShowcaseView's canvas. The bitmap can cover just the area around the showcase, can be
+ * lower resolution than the view, and can be an alpha mask rather than a full colour bitmap
+ */
+class OverlayBuffer {
+
+    private final Paint compositePaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Paint fillPaint = new Paint();
+    private final Rect destination = new Rect();
+    private final BitmapPool bitmapPool;
+
+    private Bitmap bitmap;
+    private Canvas canvas;
+
+    // What the bitmap currently holds
+    private boolean hasContents;
+    private ShowcaseRenderer drawnRenderer;
+    private int drawnX;
+    private int drawnY;
+    private float drawnScaleMultiplier;
+    private int drawnBackgroundColor;
+    private int drawnShowcaseColor;
+    private final Overlay drawnOverlay = new Overlay();
+
+    public OverlayBuffer(BitmapPool bitmapPool) {
+        this.bitmapPool = bitmapPool;
+    }
+
+    /**
+     * Make sure the buffer is suitable for drawing an area of the view, taking a new bitmap
+     * from the pool if it isn't. Moving an area of the same size reuses the same bitmap
+     *
+     * @param area   the area of the view the buffer covers, in view coordinates
+     * @param config the format of the bitmap
+     * @param scale  the resolution of the bitmap, relative to the view
+     */
+    public void update(Rect area, Bitmap.Config config, float scale) {
+        int bufferWidth = Math.max(1, Math.round(area.width() * scale));
+        int bufferHeight = Math.max(1, Math.round(area.height() * scale));
+        boolean reallocate = bitmap == null || bitmap.getWidth() != bufferWidth
+                || bitmap.getHeight() != bufferHeight || bitmap.getConfig() != config;
+        if (reallocate) {
+            release();
+            bitmap = bitmapPool.acquire(bufferWidth, bufferHeight, config);
+            canvas = new Canvas(bitmap);
+        }
+        if (reallocate || !destination.equals(area)) {
+            destination.set(area);
+            // Renderers always draw in view coordinates
+            canvas.setMatrix(null);
+            canvas.scale((float) bufferWidth / area.width(), (float) bufferHeight / area.height());
+            canvas.translate(-area.left, -area.top);
+            hasContents = false;
+        }
+    }
+
+    /**
+     * @return true if the bitmap already holds a showcase drawn with these values, in which case
+     * it can be drawn again without being redrawn. The overlay is anything else drawn into the
+     * buffer along with the showcase, such as the text
+     */
+    public boolean hasContents(ShowcaseRenderer renderer, int x, int y, float scaleMultiplier,
+                               int backgroundColor, int showcaseColor, Overlay overlay) {
+        return hasContents && drawnRenderer == renderer && drawnX == x && drawnY == y
+                && drawnScaleMultiplier == scaleMultiplier
+                && drawnBackgroundColor == backgroundColor && drawnShowcaseColor == showcaseColor
+                && drawnOverlay.matches(overlay);
+    }
+
+    /**
+     * Record the values the showcase currently in the bitmap was drawn with
+     */
+    public void setContents(ShowcaseRenderer renderer, int x, int y, float scaleMultiplier,
+                            int backgroundColor, int showcaseColor, Overlay overlay) {
+        hasContents = true;
+        drawnRenderer = renderer;
+        drawnX = x;
+        drawnY = y;
+        drawnScaleMultiplier = scaleMultiplier;
+        drawnBackgroundColor = backgroundColor;
+        drawnShowcaseColor = showcaseColor;
+        drawnOverlay.copyFrom(overlay);
+    }
+
+    /**
+     * @return true if the bitmap holds a showcase drawn with this overlay
+     */
+    public boolean hasOverlay(Overlay overlay) {
+        return hasContents && drawnOverlay.matches(overlay);
+    }
+
+    public boolean hasBitmap() {
+        return bitmap != null;
+    }
+
+    public Bitmap getBitmap() {
+        return bitmap;
+    }
+
+    /**
+     * @return a canvas which draws into the buffer, using the coordinates of the view
+     */
+    public Canvas getCanvas() {
+        return canvas;
+    }
+
+    /**
+     * Draw the buffer onto a canvas, scaling it up to the area it covers. If the buffer
+     * doesn't cover the whole view, the rest of the view is filled with the background colour
+     *
+     * @param target          the canvas to draw to
+     * @param backgroundColor the background colour, also used to draw the buffer if it is an alpha mask
+     * @param viewWidth       width of the view
+     * @param viewHeight      height of the view
+     */
+    public void drawTo(Canvas target, @ColorInt int backgroundColor, int viewWidth, int viewHeight) {
+        if (bitmap.getConfig() == Bitmap.Config.ALPHA_8) {
+            // The mask holds the alpha, so the colour is drawn opaque
+            compositePaint.setColor(backgroundColor | 0xFF000000);
+        } else {
+            compositePaint.setColor(Color.BLACK);
+        }
+        target.drawBitmap(bitmap, null, destination, compositePaint);
+
+        fillPaint.setColor(backgroundColor);
+        fillOutside(target, destination, viewWidth, viewHeight, fillPaint);
+    }
+
+    /**
+     * Fill the view outside of an area with up to four rects
+     */
+    private static void fillOutside(Canvas target, Rect area, int viewWidth, int viewHeight, Paint paint) {
+        fillRect(target, 0, 0, viewWidth, area.top, paint);
+        fillRect(target, 0, area.bottom, viewWidth, viewHeight, paint);
+        fillRect(target, 0, area.top, area.left, area.bottom, paint);
+        fillRect(target, area.right, area.top, viewWidth, area.bottom, paint);
+    }
+
+    private static void fillRect(Canvas target, int left, int top, int right, int bottom, Paint paint) {
+        if (left < right && top < bottom) {
+            target.drawRect(left, top, right, bottom, paint);
+        }
+    }
+
+    /**
+     * Return the bitmap to the pool. The buffer can be used again after calling
+     * {@link #update(Rect, Bitmap.Config, float)}
+     */
+    public void release() {
+        bitmapPool.release(bitmap);
+        bitmap = null;
+        canvas = null;
+        hasContents = false;
+        drawnRenderer = null;
+    }
+
+    /**
+     * What is drawn into the buffer along with the showcase. Each value is compared exactly, so
+     * a change to any of them means the buffer is redrawn
+     */
+    static class Overlay {
+
+        private int compositeMode;
+        private int textVersion;
+        private boolean hasButton;
+        private final Rect buttonBounds = new Rect();
+        private CharSequence buttonText;
+        private int[] buttonState = new int[0];
+        private int buttonVersion;
+
+        void set(int compositeMode, int textVersion) {
+            this.compositeMode = compositeMode;
+            this.textVersion = textVersion;
+            hasButton = false;
+            buttonBounds.setEmpty();
+            buttonText = null;
+            buttonVersion = 0;
+        }
+
+        /**
+         * @param text  the button's text. Only the same instance counts as the same text
+         * @param state   the button's drawable state. This isn't copied, so is only valid until
+         *                the state changes
+         * @param version changes whenever the button has been invalidated, for changes which
+         *                aren't part of its state, such as a ripple
+         */
+        void setButton(int left, int top, int right, int bottom, CharSequence text, int[] state,
+                       int version) {
+            hasButton = true;
+            buttonBounds.set(left, top, right, bottom);
+            buttonText = text;
+            buttonState = state;
+            buttonVersion = version;
+        }
+
+        void copyFrom(Overlay overlay) {
+            compositeMode = overlay.compositeMode;
+            textVersion = overlay.textVersion;
+            hasButton = overlay.hasButton;
+            buttonBounds.set(overlay.buttonBounds);
+            buttonText = overlay.buttonText;
+            buttonVersion = overlay.buttonVersion;
+            if (!Arrays.equals(buttonState, overlay.buttonState)) {
+                // Views reuse their state array, so a copy is kept
+                buttonState = overlay.buttonState.clone();
+            }
+        }
+
+        boolean matches(Overlay overlay) {
+            return compositeMode == overlay.compositeMode && textVersion == overlay.textVersion
+                    && hasButton == overlay.hasButton && buttonBounds.equals(overlay.buttonBounds)
+                    && buttonText == overlay.buttonText && Arrays.equals(buttonState, overlay.buttonState)
+                    && buttonVersion == overlay.buttonVersion;
+        }
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2014 Alex Curran
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.amlcurran.showcaseview;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+import android.support.v4.util.LruCache;
+import android.text.Html;
+import android.text.Spanned;
+import android.text.SpannedString;
+
+/**
+ * Process-wide cache of showcase text parsed from HTML. The parsed text is never changed after
+ * it is parsed, so showcases with the same markup share it. Images are given as
+ * {@code <img src="name">} or {@code <img src="@drawable/name">}, and are loaded through
+ * {@link InlineDrawableCache}.
+ */
+class RichTextCache {
+
+    private static final int MAX_TEXTS = 32;
+    private static final LruCache<Key, Spanned> TEXTS = new LruCache<Key, Spanned>(MAX_TEXTS);
+
+    /**
+     * Parse HTML into styled text. The returned text is shared, so it can't be modified
+     */
+    static Spanned fromHtml(Context context, String html) {
+        Resources resources = context.getResources();
+        Key key = new Key(html, resources.getDisplayMetrics().densityDpi);
+        Spanned text = TEXTS.get(key);
+        if (text == null) {
+            // fromHtml returns a mutable builder, so copy it before sharing it
+            text = new SpannedString(Html.fromHtml(html, new CachedImageGetter(context), null));
+            TEXTS.put(key, text);
+        }
+        return text;
+    }
+
+    private static class CachedImageGetter implements Html.ImageGetter {
+
+        private final Resources resources;
+        private final Resources.Theme theme;
+        private final String packageName;
+
+        CachedImageGetter(Context context) {
+            this.resources = context.getResources();
+            this.theme = context.getTheme();
+            this.packageName = context.getPackageName();
+        }
+
+        @Override
+        public Drawable getDrawable(String source) {
+            String name = source.startsWith("@") ? source.substring(1) : source;
+            int resId = resources.getIdentifier(name, "drawable", packageName);
+            if (resId == 0) {
+                return null;
+            }
+            return InlineDrawableCache.getDrawable(resources, theme, resId);
+        }
+    }
+
+    private static class Key {
+
+        private final String html;
+        private final int densityDpi;
+
+        Key(String html, int densityDpi) {
+            this.html = html;
+            this.densityDpi = densityDpi;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return densityDpi == key.densityDpi && html.equals(key.html);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * html.hashCode() + densityDpi;
+        }
+    }
+
+}
@@ -22,7 +22,8 @@ import android.support.annotation.ColorInt;
 
 /**
  * Class to implement your own drawing of a showcase view, should you want more
- * control. See the other implementations for examples
+ * control. See the other implementations for examples. Implement {@link ShowcaseRenderer}
+ * instead to avoid the ShowcaseView needing a screen-sized bitmap
  */
 public interface ShowcaseDrawer {
 
@@ -38,7 +39,8 @@ public interface ShowcaseDrawer {
      * @param buffer the bitmap to draw onto
      * @param x the x position of the point to showcase
      * @param y the y position of the point to showcase
-     * @param scaleMultiplier a scale factor. Currently unused
+     * @param scaleMultiplier a scale factor for the showcase, where 1 is full size. A reveal animation
+     *                        grows it from 0 to 1, and pulsing takes it slightly above 1
      */
     void drawShowcase(Bitmap buffer, float x, float y, float scaleMultiplier);
 
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2014 Alex Curran
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.amlcurran.showcaseview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+
+/**
+ * Lets a {@link ShowcaseDrawer} be used as a {@link ShowcaseRenderer}. ShowcaseDrawers can only
+ * draw into a bitmap, so they draw into the ShowcaseView's full size buffer, and the buffer is
+ * drawn to the screen with {@link ShowcaseDrawer#drawToCanvas(Canvas, Bitmap)}
+ */
+class ShowcaseDrawerAdapter implements ShowcaseRenderer {
+
+    private final ShowcaseDrawer showcaseDrawer;
+    private final OverlayBuffer overlayBuffer;
+
+    public ShowcaseDrawerAdapter(ShowcaseDrawer showcaseDrawer, OverlayBuffer overlayBuffer) {
+        this.showcaseDrawer = showcaseDrawer;
+        this.overlayBuffer = overlayBuffer;
+    }
+
+    @Override
+    public void setShowcaseColour(int color) {
+        showcaseDrawer.setShowcaseColour(color);
+    }
+
+    @Override
+    public void setBackgroundColour(int backgroundColor) {
+        showcaseDrawer.setBackgroundColour(backgroundColor);
+    }
+
+    /**
+     * As the adapter needs an offscreen buffer, the canvas is always the buffer's canvas.
+     * The drawer draws into the buffer's bitmap directly
+     */
+    @Override
+    public void draw(Canvas canvas, float x, float y, float scaleMultiplier) {
+        Bitmap bitmapBuffer = overlayBuffer.getBitmap();
+        showcaseDrawer.erase(bitmapBuffer);
+        showcaseDrawer.drawShowcase(bitmapBuffer, x, y, scaleMultiplier);
+    }
+
+    void drawToCanvas(Canvas canvas) {
+        showcaseDrawer.drawToCanvas(canvas, overlayBuffer.getBitmap());
+    }
+
+    @Override
+    public boolean needsOffscreenBuffer() {
+        return true;
+    }
+
+    @Override
+    public boolean isOpaque() {
+        return false;
+    }
+
+    @Override
+    public boolean isSingleColour() {
+        return false;
+    }
+
+    @Override
+    public boolean getDamageBounds(float x, float y, float scaleMultiplier, Rect outBounds) {
+        return false;
+    }
+
+    @Override
+    public int getShowcaseWidth() {
+        return showcaseDrawer.getShowcaseWidth();
+    }
+
+    @Override
+    public int getShowcaseHeight() {
+        return showcaseDrawer.getShowcaseHeight();
+    }
+
+    @Override
+    public float getBlockedRadius() {
+        return showcaseDrawer.getBlockedRadius();
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2014 Alex Curran
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.amlcurran.showcaseview;
+
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.support.annotation.ColorInt;
+
+/**
+ * The successor to {@link ShowcaseDrawer}, which draws straight onto a {@link Canvas} rather than
+ * into a bitmap. Renderers declare what they need, so the ShowcaseView can pick the cheapest
+ * way of drawing them: renderers which don't need an offscreen buffer are drawn straight onto
+ * the ShowcaseView's canvas when it is hardware accelerated.
+ * <p/>
+ * Existing {@link ShowcaseDrawer}s continue to work, and are always drawn into an offscreen buffer.
+ */
+public interface ShowcaseRenderer {
+
+    /**
+     * Sets the value of the showcase color from themes. What this does is dependent on
+     * your implementation of {@link #draw(Canvas, float, float, float)}
+     * @param color the color supplied in the theme
+     */
+    void setShowcaseColour(@ColorInt int color);
+
+    /**
+     * Sets the background color of the showcase from themes. Typically, this is the color
+     * the whole canvas is filled with before the showcase is cut out of it
+     */
+    void setBackgroundColour(@ColorInt int backgroundColor);
+
+    /**
+     * Draw the background and the showcase. The canvas is isolated from the views underneath the
+     * ShowcaseView, either in its own layer or in an offscreen buffer, so transfer modes can be
+     * used to cut through the background. Anything already on the canvas should be replaced
+     * @param canvas the canvas to draw onto
+     * @param x the x position of the point to showcase
+     * @param y the y position of the point to showcase
+     * @param scaleMultiplier a scale factor for the showcase, where 1 is full size. A reveal animation
+     *                        grows it from 0 to 1, and pulsing takes it slightly above 1
+     */
+    void draw(Canvas canvas, float x, float y, float scaleMultiplier);
+
+    /**
+     * @return true if this renderer must be drawn into an offscreen bitmap, rather than
+     * straight onto a hardware accelerated canvas
+     */
+    boolean needsOffscreenBuffer();
+
+    /**
+     * @return true if this renderer covers every pixel of the ShowcaseView with an opaque
+     * colour, so the views underneath it don't need to be drawn
+     */
+    boolean isOpaque();
+
+    /**
+     * @return true if everything this renderer draws is the background color, with the showcase
+     * cut out of it. If the showcase has to be buffered, ShowcaseView can then store it as an alpha
+     * mask, which uses a quarter of the memory
+     */
+    boolean isSingleColour();
+
+    /**
+     * Calculate the area which {@link #draw(Canvas, float, float, float)} changes from
+     * the plain background. Outside of it, everything must be the color set in
+     * {@link #setBackgroundColour(int)}. When the showcase moves, only this area and the text are
+     * redrawn, and if the showcase is buffered only this area is buffered. Below a scale of 1,
+     * the built-in renderers return the full size bounds, so a buffer sized for them doesn't
+     * change while the showcase is revealed
+     * @param x the x position of the point to showcase
+     * @param y the y position of the point to showcase
+     * @param scaleMultiplier a scale factor for the showcase, where 1 is full size
+     * @param outBounds the rect to put the bounds into
+     * @return false if the bounds aren't known, in which case the whole ShowcaseView is redrawn
+     */
+    boolean getDamageBounds(float x, float y, float scaleMultiplier, Rect outBounds);
+
+    /**
+     * @return the width of the showcase, used to calculate where to place text
+     */
+    int getShowcaseWidth();
+
+    /**
+     * @return the height of the showcase, used to calculate where to place text
+     */
+    int getShowcaseHeight();
+
+    /**
+     * @return the radius to block touches outside of, if
+     * {@link ShowcaseView.Builder#doNotBlockTouches()} isn't set
+     */
+    float getBlockedRadius();
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2014 Alex Curran
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.amlcurran.showcaseview;
+
+import android.animation.ValueAnimator;
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.view.animation.AnimationUtils;
+import android.view.animation.DecelerateInterpolator;
+import android.view.animation.Interpolator;
+
+/**
+ * Drives the scale of a ShowcaseView's showcase, for revealing it and pulsing it. Both are worked
+ * out from one animator, so a reveal and a pulse at the same time still make one scale update
+ * per frame
+ */
+@TargetApi(Build.VERSION_CODES.HONEYCOMB)
+class ShowcaseScaleAnimation implements ValueAnimator.AnimatorUpdateListener {
+
+    private static final long REVEAL_MILLIS = 400;
+    private static final long PULSE_PERIOD_MILLIS = 1200;
+
+    private final ShowcaseView showcaseView;
+    private final ValueAnimator animator;
+    private final FrameStatsTracker frameStats;
+    private final Interpolator revealInterpolator = new DecelerateInterpolator();
+
+    private boolean isRevealing;
+    private long revealStartTime;
+    private boolean isPulsing;
+    private long pulseStartTime;
+
+    ShowcaseScaleAnimation(ShowcaseView showcaseView) {
+        this.showcaseView = showcaseView;
+        animator = ValueAnimator.ofFloat(0f, 1f);
+        animator.setRepeatCount(ValueAnimator.INFINITE);
+        animator.addUpdateListener(this);
+        frameStats = new FrameStatsTracker(showcaseView.getContext(), AnimationStatsListener.ANIMATION_SCALE);
+        frameStats.attach(animator);
+    }
+
+    void reveal() {
+        isRevealing = true;
+        revealStartTime = AnimationUtils.currentAnimationTimeMillis();
+        showcaseView.setScaleMultiplier(0f);
+        ensureRunning();
+    }
+
+    void setPulsing(boolean pulsing) {
+        if (pulsing == isPulsing) {
+            return;
+        }
+        isPulsing = pulsing;
+        if (pulsing) {
+            pulseStartTime = AnimationUtils.currentAnimationTimeMillis();
+            ensureRunning();
+        }
+    }
+
+    /**
+     * Stop revealing and pulsing, putting the showcase back to full size
+     */
+    void stop() {
+        isRevealing = false;
+        isPulsing = false;
+        animator.cancel();
+        showcaseView.setScaleMultiplier(1f);
+    }
+
+    private void ensureRunning() {
+        if (!animator.isStarted()) {
+            frameStats.setListener(showcaseView.getAnimationStatsListener());
+            animator.start();
+        }
+    }
+
+    @Override
+    public void onAnimationUpdate(ValueAnimator animation) {
+        long now = AnimationUtils.currentAnimationTimeMillis();
+        float scale = 1f;
+
+        if (isRevealing) {
+            float progress = (now - revealStartTime) / (float) REVEAL_MILLIS;
+            if (progress >= 1f) {
+                isRevealing = false;
+            } else {
+                scale *= revealInterpolator.getInterpolation(Math.max(0f, progress));
+            }
+        }
+
+        if (isPulsing) {
+            double phase = 2 * Math.PI * ((now - pulseStartTime) % PULSE_PERIOD_MILLIS) / PULSE_PERIOD_MILLIS;
+            // Starts and ends each period at full size
+            float pulse = (float) (1 - Math.cos(phase)) / 2;
+            scale *= 1f + (ShowcaseView.MAX_PULSE_SCALE - 1f) * pulse;
+        }
+
+        showcaseView.setScaleMultiplier(scale);
+        if (!isRevealing && !isPulsing) {
+            animator.cancel();
+        }
+    }
+
+}
@@ -16,7 +16,9 @@
 
 package com.github.amlcurran.showcaseview;
 
+import android.annotation.TargetApi;
 import android.app.Activity;
+import android.app.ActivityManager;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.graphics.Bitmap;
@@ -25,6 +27,7 @@ import android.graphics.Color;
 import android.graphics.Point;
 import android.graphics.PorterDuff;
 import android.graphics.Rect;
+import android.os.Build;
 import android.support.annotation.IntDef;
 import android.text.Layout;
 import android.text.TextPaint;
@@ -34,6 +37,7 @@ import android.view.LayoutInflater;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
 import android.widget.Button;
 import android.widget.RelativeLayout;
 
@@ -63,17 +67,47 @@ public class ShowcaseView extends RelativeLayout
     public @interface TextPosition {
     }
 
+    public static final int BUFFER_FORMAT_AUTO = 0;
+    public static final int BUFFER_FORMAT_ARGB = 1;
+    public static final int BUFFER_FORMAT_ALPHA_MASK = 2;
+
+    @Retention(RetentionPolicy.SOURCE)
+    @IntDef({BUFFER_FORMAT_AUTO, BUFFER_FORMAT_ARGB, BUFFER_FORMAT_ALPHA_MASK})
+    public @interface BufferFormat {
+    }
+
+    public static final float BUFFER_SCALE_AUTO = 0f;
+
+    public static final int COMPOSITE_NONE = 0;
+    public static final int COMPOSITE_TEXT = 1;
+    public static final int COMPOSITE_TEXT_AND_BUTTON = 2;
+
+    @Retention(RetentionPolicy.SOURCE)
+    @IntDef({COMPOSITE_NONE, COMPOSITE_TEXT, COMPOSITE_TEXT_AND_BUTTON})
+    public @interface CompositeMode {
+    }
+    private static final float LOW_RAM_BUFFER_SCALE = 0.5f;
+    // The largest scale a pulsing showcase grows to
+    static final float MAX_PULSE_SCALE = 1.08f;
+
     private Button mEndButton;
     private final TextDrawer textDrawer;
-    private ShowcaseDrawer showcaseDrawer;
+    private ShowcaseRenderer showcaseRenderer;
     private final ShowcaseAreaCalculator showcaseAreaCalculator;
-    private final AnimationFactory animationFactory;
+    private AnimationFactory animationFactory;
+    private AnimationFactory.MoveAnimation showcaseMove;
+    private AnimationStatsListener animationStatsListener = AnimationStatsListener.NONE;
+    private ShowcaseScaleAnimation scaleAnimation;
     private final ShotStateStore shotStateStore;
+    private final ApiUtils apiUtils;
 
     // Showcase metrics
     private int showcaseX = -1;
     private int showcaseY = -1;
     private float scaleMultiplier = 1f;
+    private int positionVersion;
+    private boolean revealOnShow;
+    private boolean isPulsing;
 
     // Touch items
     private boolean hasCustomClickListener = false;
@@ -84,7 +118,18 @@ public class ShowcaseView extends RelativeLayout
     private boolean hasAlteredText = false;
     private boolean hasNoTarget = false;
     private boolean shouldCentreText;
-    private Bitmap bitmapBuffer;
+    private final OverlayBuffer overlayBuffer = new OverlayBuffer(BitmapPool.getInstance());
+    @BufferFormat
+    private int bufferFormat = BUFFER_FORMAT_AUTO;
+    private float bufferScale = BUFFER_SCALE_AUTO;
+    private final Rect bufferArea = new Rect();
+    private final OverlayBuffer.Overlay overlay = new OverlayBuffer.Overlay();
+    @CompositeMode
+    private int compositeMode = COMPOSITE_NONE;
+    private boolean isTextInBuffer;
+    private boolean isButtonInBuffer;
+    private int buttonVersion;
+    private final boolean isLowRamDevice;
 
     // Animation items
     private long fadeInMillis;
@@ -95,6 +140,13 @@ public class ShowcaseView extends RelativeLayout
     private boolean blockAllTouches;
     private final int[] positionInWindow = new int[2];
 
+    // Damage tracking items
+    private final Rect drawnBounds = new Rect();
+    private final Rect damageBounds = new Rect();
+    private final Rect textBounds = new Rect();
+    private final Rect previousTextBounds = new Rect();
+    private boolean hasDrawnBounds = false;
+
     protected ShowcaseView(Context context, boolean newStyle) {
         this(context, null, R.styleable.CustomTheme_showcaseViewStyle, newStyle);
     }
@@ -102,13 +154,10 @@ public class ShowcaseView extends RelativeLayout
     protected ShowcaseView(Context context, AttributeSet attrs, int defStyle, boolean newStyle) {
         super(context, attrs, defStyle);
 
-        ApiUtils apiUtils = new ApiUtils();
-        if (apiUtils.isCompatWithHoneycomb()) {
-            animationFactory = new AnimatorAnimationFactory();
-        } else {
-            animationFactory = new NoAnimationFactory();
-        }
+        apiUtils = new ApiUtils();
+        animationFactory = createDefaultAnimationFactory();
         showcaseAreaCalculator = new ShowcaseAreaCalculator();
+        isLowRamDevice = isLowRamDevice(context);
         shotStateStore = new ShotStateStore(context);
 
         // Get the attributes for the ShowcaseView
@@ -122,9 +171,9 @@ public class ShowcaseView extends RelativeLayout
 
         mEndButton = (Button) LayoutInflater.from(context).inflate(R.layout.showcase_button, null);
         if (newStyle) {
-            showcaseDrawer = new NewShowcaseDrawer(getResources(), context.getTheme());
+            showcaseRenderer = new NewShowcaseDrawer(getResources(), context.getTheme());
         } else {
-            showcaseDrawer = new StandardShowcaseDrawer(getResources(), context.getTheme());
+            showcaseRenderer = new StandardShowcaseDrawer(getResources(), context.getTheme());
         }
         textDrawer = new TextDrawer(getResources(), getContext());
 
@@ -157,20 +206,62 @@ public class ShowcaseView extends RelativeLayout
         return shotStateStore.hasShot();
     }
 
-    void setShowcasePosition(Point point) {
+    /**
+     * A number which changes whenever the showcase is moved, so an animation can tell whether
+     * something else has moved the showcase since its last frame
+     */
+    int getPositionVersion() {
+        return positionVersion;
+    }
+
+    /**
+     * Move the showcase to a point in window coordinates, without animating
+     */
+    public void setShowcasePosition(Point point) {
         setShowcasePosition(point.x, point.y);
     }
 
-    void setShowcasePosition(int x, int y) {
+    /**
+     * Move the showcase to a point in window coordinates, without animating
+     */
+    public void setShowcasePosition(int x, int y) {
         if (shotStateStore.hasShot()) {
             return;
         }
         getLocationInWindow(positionInWindow);
         showcaseX = x - positionInWindow[0];
         showcaseY = y - positionInWindow[1];
+        positionVersion++;
         //init();
         recalculateText();
-        invalidate();
+        invalidateShowcase();
+    }
+
+    /**
+     * Invalidate only the area which changes when the showcase moves: the showcase and text
+     * as they were last drawn, and as they will be drawn now
+     */
+    private void invalidateShowcase() {
+        if (!hasDrawnBounds || hasNoTarget || !calculateShowcaseBounds(damageBounds)) {
+            invalidate();
+            return;
+        }
+        damageBounds.union(drawnBounds);
+        invalidate(damageBounds);
+    }
+
+    /**
+     * @return false if the renderer doesn't know the area it draws over
+     */
+    private boolean calculateShowcaseBounds(Rect outBounds) {
+        if (!showcaseRenderer.getDamageBounds(showcaseX, showcaseY, scaleMultiplier, outBounds)) {
+            return false;
+        }
+        textDrawer.getTextBounds(textBounds);
+        outBounds.union(textBounds);
+        // Allow for anti-aliasing at the edges
+        outBounds.inset(-1, -1);
+        return true;
     }
 
     public void setTarget(final Target target) {
@@ -192,10 +283,16 @@ public class ShowcaseView extends RelativeLayout
                     if (targetPoint != null) {
                         hasNoTarget = false;
                         if (animate) {
-                            animationFactory.animateTargetToPoint(ShowcaseView.this, targetPoint);
+                            moveShowcaseTo(targetPoint);
                         } else {
+                            cancelShowcaseMove();
                             setShowcasePosition(targetPoint);
                         }
+                        if (revealOnShow) {
+                            // Only the first target is revealed, later ones are moved to
+                            revealOnShow = false;
+                            revealShowcase();
+                        }
                     } else {
                         hasNoTarget = true;
                         invalidate();
@@ -206,18 +303,121 @@ public class ShowcaseView extends RelativeLayout
         }, 100);
     }
 
+    /**
+     * Animate the showcase to a point. If it is already moving, that move is retargeted, so
+     * quickly skipping through targets never runs several moves at once
+     */
+    private void moveShowcaseTo(Point point) {
+        if (showcaseMove != null && showcaseMove.retarget(point.x, point.y)) {
+            return;
+        }
+        cancelShowcaseMove();
+        showcaseMove = animationFactory.animateTargetToPoint(this, point);
+    }
+
+    private void cancelShowcaseMove() {
+        if (showcaseMove != null) {
+            showcaseMove.cancel();
+            showcaseMove = null;
+        }
+    }
+
     private void updateBitmap() {
-        if (bitmapBuffer == null || haveBoundsChanged()) {
-            if (bitmapBuffer != null) {
-                bitmapBuffer.recycle();
-            }
-            bitmapBuffer = Bitmap.createBitmap(getMeasuredWidth(), getMeasuredHeight(), Bitmap.Config.ARGB_8888);
+        if (canDrawWithoutBuffer()) {
+            clearBitmap();
+            return;
+        }
+        updateBufferArea();
+    }
+
+    private void updateBufferArea() {
+        if (showcaseRenderer instanceof ShowcaseDrawerAdapter) {
+            // ShowcaseDrawers draw straight into the bitmap, so it must match the view exactly
+            bufferArea.set(0, 0, getMeasuredWidth(), getMeasuredHeight());
+            overlayBuffer.update(bufferArea, Bitmap.Config.ARGB_8888, 1f);
+        } else if (compositesText()) {
+            // The buffer is all that is drawn, so it holds the text at full resolution. The text
+            // and button move relative to the showcase, so an area around them would change size
+            // as the showcase moves and need a new bitmap every frame. The whole view never does
+            bufferArea.set(0, 0, getMeasuredWidth(), getMeasuredHeight());
+            overlayBuffer.update(bufferArea, Bitmap.Config.ARGB_8888, 1f);
+        } else {
+            calculateBufferArea(bufferArea);
+            overlayBuffer.update(bufferArea, chooseBufferConfig(), chooseBufferScale());
         }
     }
 
-    private boolean haveBoundsChanged() {
-        return getMeasuredWidth() != bitmapBuffer.getWidth() ||
-                getMeasuredHeight() != bitmapBuffer.getHeight();
+    /**
+     * Everything outside of the renderer's damage bounds is plain background, so the buffer only
+     * needs to cover those bounds. Then the buffer is the size of the showcase, not the screen.
+     * A pulsing showcase gets a buffer big enough for its largest size, so the buffer isn't
+     * reallocated every frame
+     */
+    private void calculateBufferArea(Rect outArea) {
+        float areaScale = isPulsing ? Math.max(scaleMultiplier, MAX_PULSE_SCALE) : scaleMultiplier;
+        if (showcaseRenderer.getDamageBounds(showcaseX, showcaseY, areaScale, outArea)) {
+            // Allow for anti-aliasing at the edges
+            outArea.inset(-1, -1);
+        } else {
+            outArea.set(0, 0, getMeasuredWidth(), getMeasuredHeight());
+        }
+    }
+
+    private boolean compositesText() {
+        return compositeMode != COMPOSITE_NONE;
+    }
+
+    private boolean compositesButton() {
+        return compositeMode == COMPOSITE_TEXT_AND_BUTTON;
+    }
+
+    /**
+     * Record everything drawn into the buffer along with the showcase
+     */
+    private void updateOverlay() {
+        overlay.set(compositeMode, compositesText() ? textDrawer.getContentVersion() : 0);
+        if (compositesButton() && mEndButton.getVisibility() == VISIBLE) {
+            overlay.setButton(mEndButton.getLeft(), mEndButton.getTop(), mEndButton.getRight(),
+                    mEndButton.getBottom(), mEndButton.getText(), mEndButton.getDrawableState(),
+                    buttonVersion);
+        }
+    }
+
+    /**
+     * Whether the showcase can be drawn straight onto a hardware accelerated canvas, meaning
+     * no bitmap buffer is required
+     */
+    @TargetApi(Build.VERSION_CODES.HONEYCOMB)
+    private boolean canDrawWithoutBuffer() {
+        return !showcaseRenderer.needsOffscreenBuffer() && !compositesText()
+                && apiUtils.isCompatWithHoneycomb() && isHardwareAccelerated();
+    }
+
+    private Bitmap.Config chooseBufferConfig() {
+        switch (bufferFormat) {
+            case BUFFER_FORMAT_ALPHA_MASK:
+                return Bitmap.Config.ALPHA_8;
+            case BUFFER_FORMAT_ARGB:
+                return Bitmap.Config.ARGB_8888;
+            default:
+                return showcaseRenderer.isSingleColour() ? Bitmap.Config.ALPHA_8 : Bitmap.Config.ARGB_8888;
+        }
+    }
+
+    private float chooseBufferScale() {
+        if (bufferScale != BUFFER_SCALE_AUTO) {
+            return bufferScale;
+        }
+        return isLowRamDevice ? LOW_RAM_BUFFER_SCALE : 1f;
+    }
+
+    @TargetApi(Build.VERSION_CODES.KITKAT)
+    private boolean isLowRamDevice(Context context) {
+        if (apiUtils.isCompatWith(Build.VERSION_CODES.KITKAT)) {
+            ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+            return activityManager.isLowRamDevice();
+        }
+        return false;
     }
 
     public boolean hasShowcaseView() {
@@ -269,14 +469,64 @@ public class ShowcaseView extends RelativeLayout
         }
     }
 
+    /**
+     * Set the animations used to show, hide and move the showcase. Passing null restores the
+     * default animations
+     */
+    public void setAnimationFactory(AnimationFactory animationFactory) {
+        cancelShowcaseMove();
+        if (animationFactory != null) {
+            this.animationFactory = animationFactory;
+        } else {
+            this.animationFactory = createDefaultAnimationFactory();
+        }
+        setAnimationStatsListener(animationStatsListener);
+    }
+
+    private AnimationFactory createDefaultAnimationFactory() {
+        if (apiUtils.isCompatWithHoneycomb()) {
+            return new AnimatorAnimationFactory();
+        } else {
+            return new NoAnimationFactory();
+        }
+    }
+
+    /**
+     * Be told how many frames each animation drew and dropped, and how long it took. A custom
+     * {@link AnimationFactory} is given the listener to report its own animations to
+     */
+    public void setAnimationStatsListener(AnimationStatsListener listener) {
+        if (listener != null) {
+            animationStatsListener = listener;
+        } else {
+            animationStatsListener = AnimationStatsListener.NONE;
+        }
+        animationFactory.setAnimationStatsListener(animationStatsListener);
+    }
+
+    AnimationStatsListener getAnimationStatsListener() {
+        return animationStatsListener;
+    }
+
     public void setButtonText(CharSequence text) {
         if (mEndButton != null) {
             mEndButton.setText(text);
         }
     }
 
+    /**
+     * Place the text again after its content or styling changes, as it may no longer fit where
+     * it is. If the showcase hasn't been placed yet, the text is placed along with it
+     */
+    private void replaceText() {
+        hasAlteredText = true;
+        if (showcaseX >= 0 && showcaseY >= 0 && canUpdateBitmap()) {
+            recalculateText();
+        }
+    }
+
     private void recalculateText() {
-        boolean recalculatedCling = showcaseAreaCalculator.calculateShowcaseRect(showcaseX, showcaseY, showcaseDrawer);
+        boolean recalculatedCling = showcaseAreaCalculator.calculateShowcaseRect(showcaseX, showcaseY, showcaseRenderer);
         boolean recalculateText = recalculatedCling || hasAlteredText;
         if (recalculateText) {
             Rect rect = hasShowcaseView() ? showcaseAreaCalculator.getShowcaseRect() : new Rect();
@@ -285,43 +535,168 @@ public class ShowcaseView extends RelativeLayout
         hasAlteredText = false;
     }
 
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        // The text can be laid out while waiting for the target to be found
+        textDrawer.prepareLayouts(w, shouldCentreText);
+        if (oldw > 0 && oldh > 0 && showcaseX >= 0 && showcaseY >= 0) {
+            // Place the text for the new size now, rather than during the first frame after it
+            hasAlteredText = true;
+            recalculateText();
+            if (canUpdateBitmap()) {
+                updateBitmap();
+            }
+        }
+    }
+
     @SuppressWarnings("NullableProblems")
     @Override
     protected void dispatchDraw(Canvas canvas) {
-        if (showcaseX < 0 || showcaseY < 0 || shotStateStore.hasShot() || bitmapBuffer == null) {
+        if (showcaseX < 0 || showcaseY < 0 || shotStateStore.hasShot()) {
+            hasDrawnBounds = false;
             super.dispatchDraw(canvas);
             return;
         }
 
-        //Draw background color
-        showcaseDrawer.erase(bitmapBuffer);
-
-        // Draw the showcase drawable
-        if (!hasNoTarget) {
-            showcaseDrawer.drawShowcase(bitmapBuffer, showcaseX, showcaseY, scaleMultiplier);
-            showcaseDrawer.drawToCanvas(canvas, bitmapBuffer);
+        isTextInBuffer = false;
+        isButtonInBuffer = false;
+        boolean hasBuffer = overlayBuffer.hasBitmap();
+        boolean canDrawDirectly = isCanvasAccelerated(canvas) && !compositesText();
+        if (!showcaseRenderer.needsOffscreenBuffer() && (!hasBuffer || canDrawDirectly)) {
+            drawShowcaseToCanvas(canvas);
+        } else if (hasBuffer) {
+            drawShowcaseToBuffer(canvas);
+        } else {
+            hasDrawnBounds = false;
+            super.dispatchDraw(canvas);
+            return;
         }
 
         // Draw the text on the screen, recalculating its position if necessary
-        textDrawer.draw(canvas);
+        if (!isTextInBuffer) {
+            textDrawer.draw(canvas);
+        }
+        recordDrawnBounds();
 
         super.dispatchDraw(canvas);
 
     }
 
+    @Override
+    protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+        // A button which has been drawn into the buffer doesn't need drawing again
+        return !(child == mEndButton && isButtonInBuffer) && super.drawChild(canvas, child, drawingTime);
+    }
+
+    /**
+     * A button drawn into the buffer is only drawn by {@link #dispatchDraw(Canvas)}, which a
+     * hardware accelerated window doesn't call again when only the button has been invalidated.
+     * So before each frame, the ShowcaseView is invalidated if the button has changed
+     */
+    private final ViewTreeObserver.OnPreDrawListener compositedButtonWatcher =
+            new ViewTreeObserver.OnPreDrawListener() {
+                @Override
+                public boolean onPreDraw() {
+                    if (isButtonInBuffer && hasButtonChanged()) {
+                        invalidate();
+                    }
+                    return true;
+                }
+            };
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private boolean hasButtonChanged() {
+        if (apiUtils.isCompatWith(Build.VERSION_CODES.LOLLIPOP) && mEndButton.isDirty()) {
+            // Such as a ripple, which changes how the button looks without changing its state
+            buttonVersion++;
+            return true;
+        }
+        updateOverlay();
+        return !overlayBuffer.hasOverlay(overlay);
+    }
+
+    private void recordDrawnBounds() {
+        hasDrawnBounds = calculateShowcaseBounds(drawnBounds);
+    }
+
+    private void drawShowcaseToBuffer(Canvas canvas) {
+        if (hasNoTarget) {
+            return;
+        }
+
+        // Moves the buffer to cover the showcase's new position
+        updateBufferArea();
+
+        // Only redraw the buffer if something which affects it has changed. Otherwise, things like
+        // the button being pressed would redraw the whole showcase
+        updateOverlay();
+        if (!overlayBuffer.hasContents(showcaseRenderer, showcaseX, showcaseY, scaleMultiplier,
+                backgroundColor, showcaseColor, overlay)) {
+            // The buffer may be scaled or an alpha mask, so draw through its canvas
+            Canvas bufferCanvas = overlayBuffer.getCanvas();
+            showcaseRenderer.draw(bufferCanvas, showcaseX, showcaseY, scaleMultiplier);
+            if (compositesText()) {
+                textDrawer.draw(bufferCanvas);
+            }
+            if (compositesButton() && mEndButton.getVisibility() == VISIBLE) {
+                int saveCount = bufferCanvas.save();
+                bufferCanvas.translate(mEndButton.getLeft(), mEndButton.getTop());
+                mEndButton.draw(bufferCanvas);
+                bufferCanvas.restoreToCount(saveCount);
+            }
+            overlayBuffer.setContents(showcaseRenderer, showcaseX, showcaseY, scaleMultiplier,
+                    backgroundColor, showcaseColor, overlay);
+        }
+        isTextInBuffer = compositesText();
+        isButtonInBuffer = compositesButton();
+
+        if (showcaseRenderer instanceof ShowcaseDrawerAdapter) {
+            ((ShowcaseDrawerAdapter) showcaseRenderer).drawToCanvas(canvas);
+        } else {
+            overlayBuffer.drawTo(canvas, backgroundColor, getWidth(), getHeight());
+        }
+    }
+
+    private void drawShowcaseToCanvas(Canvas canvas) {
+        if (hasNoTarget) {
+            return;
+        }
+        // The layer isolates the showcase so the renderer's transfer modes only cut
+        // through the background, and not the views beneath the ShowcaseView
+        int saveCount = canvas.saveLayer(0, 0, getWidth(), getHeight(), null, Canvas.ALL_SAVE_FLAG);
+        showcaseRenderer.draw(canvas, showcaseX, showcaseY, scaleMultiplier);
+        canvas.restoreToCount(saveCount);
+    }
+
+    /**
+     * Lets the framework skip drawing the views underneath, if the renderer covers all of them
+     */
+    @TargetApi(Build.VERSION_CODES.HONEYCOMB)
+    @Override
+    public boolean isOpaque() {
+        boolean coversEverything = isShowing && !hasNoTarget && showcaseX >= 0 && showcaseY >= 0
+                && showcaseRenderer.isOpaque();
+        boolean fullyVisible = !apiUtils.isCompatWithHoneycomb() || getAlpha() >= 1f;
+        return super.isOpaque() || (coversEverything && fullyVisible);
+    }
+
+    @TargetApi(Build.VERSION_CODES.HONEYCOMB)
+    private boolean isCanvasAccelerated(Canvas canvas) {
+        return apiUtils.isCompatWithHoneycomb() && canvas.isHardwareAccelerated();
+    }
+
     @Override
     public void hide() {
         // If the type is set to one-shot, store that it has shot
         shotStateStore.storeShot();
         mEventListener.onShowcaseViewHide(this);
+        stopScaleAnimation();
         fadeOutShowcase();
     }
 
     private void clearBitmap() {
-        if (bitmapBuffer != null && !bitmapBuffer.isRecycled()) {
-            bitmapBuffer.recycle();
-            bitmapBuffer = null;
-        }
+        overlayBuffer.release();
     }
 
     private void fadeOutShowcase() {
@@ -331,7 +706,7 @@ public class ShowcaseView extends RelativeLayout
                     public void onAnimationEnd() {
                         setVisibility(View.GONE);
                         clearBitmap();
-                        isShowing = false;
+                        setShowing(false);
                         mEventListener.onShowcaseViewDidHide(ShowcaseView.this);
                     }
                 }
@@ -340,14 +715,47 @@ public class ShowcaseView extends RelativeLayout
 
     @Override
     public void show() {
-        isShowing = true;
+        setShowing(true);
         if (canUpdateBitmap()) {
             updateBitmap();
         }
         mEventListener.onShowcaseViewShow(this);
+        updatePulsing();
         fadeInShowcase();
     }
 
+    /**
+     * Lets the bitmap pool know when no ShowcaseView is showing any more, so it can free its bitmaps
+     */
+    private void setShowing(boolean showing) {
+        if (showing != isShowing) {
+            if (showing) {
+                BitmapPool.getInstance().onShowcaseShown();
+            } else {
+                BitmapPool.getInstance().onShowcaseHidden();
+            }
+        }
+        isShowing = showing;
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        getViewTreeObserver().addOnPreDrawListener(compositedButtonWatcher);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        getViewTreeObserver().removeOnPreDrawListener(compositedButtonWatcher);
+        // Removed without being hidden, for instance when the activity is destroyed. Running
+        // animators would otherwise keep the view and its activity alive
+        stopScaleAnimation();
+        cancelShowcaseMove();
+        clearBitmap();
+        setShowing(false);
+    }
+
     private boolean canUpdateBitmap() {
         return getMeasuredHeight() > 0 && getMeasuredWidth() > 0;
     }
@@ -376,12 +784,12 @@ public class ShowcaseView extends RelativeLayout
         double distanceFromFocus = Math.sqrt(Math.pow(xDelta, 2) + Math.pow(yDelta, 2));
 
         if (MotionEvent.ACTION_UP == motionEvent.getAction() &&
-                hideOnTouch && distanceFromFocus > showcaseDrawer.getBlockedRadius()) {
+                hideOnTouch && distanceFromFocus > showcaseRenderer.getBlockedRadius()) {
             this.hide();
             return true;
         }
 
-        boolean blocked = blockTouches && distanceFromFocus > showcaseDrawer.getBlockedRadius();
+        boolean blocked = blockTouches && distanceFromFocus > showcaseRenderer.getBlockedRadius();
         if (blocked) {
             mEventListener.onShowcaseViewTouchBlocked(motionEvent);
         }
@@ -398,24 +806,143 @@ public class ShowcaseView extends RelativeLayout
     }
 
     private void hideImmediate() {
-        isShowing = false;
+        stopScaleAnimation();
+        setShowing(false);
         setVisibility(GONE);
     }
 
     @Override
     public void setContentTitle(CharSequence title) {
+        if (!hasDrawnBounds) {
+            textDrawer.setContentTitle(title);
+            replaceText();
+            invalidate();
+            return;
+        }
+        // A new title can move the detail text, so the whole text area is redrawn
+        textDrawer.getTextBounds(damageBounds);
         textDrawer.setContentTitle(title);
-        invalidate();
+        replaceText();
+        textDrawer.getTextBounds(textBounds);
+        invalidateTextArea();
     }
 
     @Override
     public void setContentText(CharSequence text) {
+        if (!hasDrawnBounds) {
+            textDrawer.setContentText(text);
+            replaceText();
+            invalidate();
+            return;
+        }
+        textDrawer.getTextBounds(previousTextBounds);
+        textDrawer.getDetailBounds(damageBounds);
         textDrawer.setContentText(text);
-        invalidate();
+        replaceText();
+        textDrawer.getTextBounds(textBounds);
+        if (isSameTextBlock(previousTextBounds, textBounds)) {
+            // Only the detail text changes, so the title doesn't need to be redrawn
+            textDrawer.getDetailBounds(textBounds);
+        } else {
+            // The new text doesn't fit where the old text was, so all of it has moved
+            damageBounds.set(previousTextBounds);
+        }
+        invalidateTextArea();
+    }
+
+    /**
+     * @return true if the text starts in the same place and is as wide, so the title is unchanged
+     */
+    private static boolean isSameTextBlock(Rect previous, Rect current) {
+        return previous.left == current.left && previous.top == current.top
+                && previous.right == current.right;
+    }
+
+    /**
+     * Set the title from HTML, which can include {@code <img src="name">} tags to show drawable
+     * resources inline. Parsed HTML and decoded images are shared between ShowcaseViews
+     */
+    public void setContentTitleHtml(String html) {
+        setContentTitle(RichTextCache.fromHtml(getContext(), html));
+    }
+
+    /**
+     * Set the detail text from HTML, which can include {@code <img src="name">} tags to show
+     * drawable resources inline. Parsed HTML and decoded images are shared between ShowcaseViews
+     */
+    public void setContentTextHtml(String html) {
+        setContentText(RichTextCache.fromHtml(getContext(), html));
+    }
+
+    private void invalidateTextArea() {
+        damageBounds.union(textBounds);
+        if (!damageBounds.isEmpty()) {
+            damageBounds.inset(-1, -1);
+            invalidate(damageBounds);
+        }
     }
 
-    private void setScaleMultiplier(float scaleMultiplier) {
+    void setScaleMultiplier(float scaleMultiplier) {
+        if (this.scaleMultiplier == scaleMultiplier) {
+            return;
+        }
         this.scaleMultiplier = scaleMultiplier;
+        invalidateShowcase();
+    }
+
+    /**
+     * Grow the showcase from nothing to its full size. Does nothing on devices before Honeycomb
+     */
+    public void revealShowcase() {
+        if (canAnimateScale()) {
+            getScaleAnimation().reveal();
+        }
+    }
+
+    /**
+     * Set whether the showcase gently grows and shrinks to draw attention to it. Does nothing on
+     * devices before Honeycomb
+     */
+    public void setPulsing(boolean pulsing) {
+        isPulsing = pulsing;
+        updatePulsing();
+    }
+
+    /**
+     * Only pulse while showing, so the animator doesn't run for a hidden showcase
+     */
+    private void updatePulsing() {
+        boolean pulse = isPulsing && isShowing;
+        if (pulse ? canAnimateScale() : scaleAnimation != null) {
+            getScaleAnimation().setPulsing(pulse);
+        }
+    }
+
+    /**
+     * Stop revealing and pulsing, without forgetting that the showcase should pulse when shown
+     */
+    private void stopScaleAnimation() {
+        if (scaleAnimation != null) {
+            scaleAnimation.stop();
+        }
+    }
+
+    private boolean canAnimateScale() {
+        return apiUtils.isCompatWithHoneycomb() && AnimatorAnimationFactory.areAnimationsEnabled(getContext());
+    }
+
+    /**
+     * Revealing and pulsing share one animation, so they make one scale change per frame
+     */
+    private ShowcaseScaleAnimation getScaleAnimation() {
+        if (scaleAnimation == null) {
+            scaleAnimation = new ShowcaseScaleAnimation(this);
+        }
+        return scaleAnimation;
+    }
+
+    private void setRevealOnShow(boolean revealOnShow) {
+        this.revealOnShow = revealOnShow;
     }
 
     public void hideButton() {
@@ -492,12 +1019,23 @@ public class ShowcaseView extends RelativeLayout
 
         /**
          * Set a custom showcase drawer which will be responsible for measuring and drawing the showcase
+         *
+         * @see #setShowcaseRenderer(ShowcaseRenderer)
          */
         public Builder setShowcaseDrawer(ShowcaseDrawer showcaseDrawer) {
             showcaseView.setShowcaseDrawer(showcaseDrawer);
             return this;
         }
 
+        /**
+         * Set a custom showcase renderer which will be responsible for measuring and drawing the showcase.
+         * Renderers can draw straight onto the screen, so are cheaper than {@link ShowcaseDrawer}s
+         */
+        public Builder setShowcaseRenderer(ShowcaseRenderer showcaseRenderer) {
+            showcaseView.setShowcaseRenderer(showcaseRenderer);
+            return this;
+        }
+
         /**
          * Set the title text shown on the ShowcaseView.
          */
@@ -528,6 +1066,24 @@ public class ShowcaseView extends RelativeLayout
             return this;
         }
 
+        /**
+         * Set the title shown on the ShowcaseView from HTML. Images can be shown inline with
+         * {@code <img src="name">}, where name is a drawable resource.
+         */
+        public Builder setContentTitleHtml(String html) {
+            showcaseView.setContentTitleHtml(html);
+            return this;
+        }
+
+        /**
+         * Set the descriptive text shown on the ShowcaseView from HTML. Images can be shown
+         * inline with {@code <img src="name">}, where name is a drawable resource.
+         */
+        public Builder setContentTextHtml(String html) {
+            showcaseView.setContentTextHtml(html);
+            return this;
+        }
+
         /**
          * Set the target of the showcase.
          *
@@ -596,6 +1152,22 @@ public class ShowcaseView extends RelativeLayout
             return this;
         }
 
+        /**
+         * Use custom animations to show, hide and move the showcase
+         */
+        public Builder setAnimationFactory(AnimationFactory animationFactory) {
+            showcaseView.setAnimationFactory(animationFactory);
+            return this;
+        }
+
+        /**
+         * Be told how smoothly each animation ran
+         */
+        public Builder setAnimationStatsListener(AnimationStatsListener animationStatsListener) {
+            showcaseView.setAnimationStatsListener(animationStatsListener);
+            return this;
+        }
+
         public Builder setParent(ViewGroup parent, int index) {
             this.parent = parent;
             this.parentIndex = index;
@@ -651,6 +1223,70 @@ public class ShowcaseView extends RelativeLayout
             return this;
         }
 
+        /**
+         * Grow the showcase from nothing to its full size when it is first shown
+         */
+        public Builder withRevealAnimation() {
+            showcaseView.setRevealOnShow(true);
+            return this;
+        }
+
+        /**
+         * Set whether the showcase gently grows and shrinks to draw attention to it
+         */
+        public Builder setPulsing(boolean pulsing) {
+            showcaseView.setPulsing(pulsing);
+            return this;
+        }
+
+        /**
+         * Draw the text, and with {@link #COMPOSITE_TEXT_AND_BUTTON} the button too, into the
+         * bitmap the showcase is drawn into. Frames where nothing has changed are then a single
+         * bitmap draw, rather than drawing the text and button over the showcase. The showcase
+         * is always drawn into a bitmap in this mode, and the whole bitmap is drawn again
+         * whenever a composited button changes, such as when it is pressed. By default,
+         * {@link #COMPOSITE_NONE} draws them separately.
+         */
+        public Builder setCompositeMode(@CompositeMode int compositeMode) {
+            showcaseView.setCompositeMode(compositeMode);
+            return this;
+        }
+
+        /**
+         * Set the format of the bitmap the showcase is drawn into when it can't be drawn straight
+         * onto the screen, for instance when hardware acceleration is off.
+         * {@link #BUFFER_FORMAT_ALPHA_MASK} uses a quarter of the memory of {@link #BUFFER_FORMAT_ARGB},
+         * but anything drawn in a colour other than the background color will be drawn in the
+         * background color. By default, {@link #BUFFER_FORMAT_AUTO} uses an alpha mask when the
+         * showcase drawer only draws the background color.
+         */
+        public Builder setBufferFormat(@BufferFormat int bufferFormat) {
+            showcaseView.setBufferFormat(bufferFormat);
+            return this;
+        }
+
+        /**
+         * Set the resolution of the bitmap the showcase is drawn into when it can't be drawn straight
+         * onto the screen, relative to the size of the ShowcaseView. A scale of 0.5 uses a quarter
+         * of the memory, and the showcase is scaled up when it is drawn. By default,
+         * {@link #BUFFER_SCALE_AUTO} uses a half resolution bitmap on low RAM devices.
+         * This has no effect on custom {@link ShowcaseDrawer}s, which are always drawn at full
+         * resolution.
+         */
+        public Builder setBufferScale(float bufferScale) {
+            showcaseView.setBufferScale(bufferScale);
+            return this;
+        }
+
+        /**
+         * Shrink the detail text until it fits in the space around the showcase, rather than
+         * letting it run off the screen. The text is never made smaller than 12sp
+         */
+        public Builder setAutoSizeContentText(boolean autoSizeContentText) {
+            showcaseView.setAutoSizeContentText(autoSizeContentText);
+            return this;
+        }
+
         /**
          * Uses the android decor view to insert a showcase, this is not recommended
          * as then UI elements in showcase view can hide behind the nav bar
@@ -673,22 +1309,76 @@ public class ShowcaseView extends RelativeLayout
     }
 
     private void setShowcaseDrawer(ShowcaseDrawer showcaseDrawer) {
-        this.showcaseDrawer = showcaseDrawer;
-        this.showcaseDrawer.setBackgroundColour(backgroundColor);
-        this.showcaseDrawer.setShowcaseColour(showcaseColor);
-        hasAlteredText = true;
+        if (showcaseDrawer instanceof ShowcaseRenderer) {
+            setShowcaseRenderer((ShowcaseRenderer) showcaseDrawer);
+        } else {
+            setShowcaseRenderer(new ShowcaseDrawerAdapter(showcaseDrawer, overlayBuffer));
+        }
+    }
+
+    private void setShowcaseRenderer(ShowcaseRenderer showcaseRenderer) {
+        this.showcaseRenderer = showcaseRenderer;
+        this.showcaseRenderer.setBackgroundColour(backgroundColor);
+        this.showcaseRenderer.setShowcaseColour(showcaseColor);
+        if (canUpdateBitmap()) {
+            updateBitmap();
+        }
+        replaceText();
+        invalidate();
+    }
+
+    private void setCompositeMode(@CompositeMode int compositeMode) {
+        if (compositeMode > COMPOSITE_TEXT_AND_BUTTON || compositeMode < COMPOSITE_NONE) {
+            throw new IllegalArgumentException("ShowcaseView composite mode was set to an invalid value");
+        }
+        this.compositeMode = compositeMode;
+        if (canUpdateBitmap()) {
+            updateBitmap();
+        }
+        invalidate();
+    }
+
+    private void setBufferFormat(@BufferFormat int bufferFormat) {
+        if (bufferFormat > BUFFER_FORMAT_ALPHA_MASK || bufferFormat < BUFFER_FORMAT_AUTO) {
+            throw new IllegalArgumentException("ShowcaseView buffer format was set to an invalid value");
+        }
+        this.bufferFormat = bufferFormat;
+        if (canUpdateBitmap()) {
+            updateBitmap();
+        }
+        invalidate();
+    }
+
+    private void setBufferScale(float bufferScale) {
+        if (bufferScale != BUFFER_SCALE_AUTO && (bufferScale <= 0f || bufferScale > 1f)) {
+            throw new IllegalArgumentException("ShowcaseView buffer scale must be between 0 and 1");
+        }
+        this.bufferScale = bufferScale;
+        if (canUpdateBitmap()) {
+            updateBitmap();
+        }
         invalidate();
     }
 
     private void setContentTitlePaint(TextPaint textPaint) {
         this.textDrawer.setTitlePaint(textPaint);
-        hasAlteredText = true;
+        replaceText();
         invalidate();
     }
 
     private void setContentTextPaint(TextPaint paint) {
         this.textDrawer.setContentPaint(paint);
-        hasAlteredText = true;
+        replaceText();
+        invalidate();
+    }
+
+    /**
+     * Set whether the detail text should shrink until it fits in the space around the showcase.
+     * This is off by default, and the text is never made smaller than 12sp
+     */
+    public void setAutoSizeContentText(boolean autoSizeContentText) {
+        textDrawer.setAutoSizeText(autoSizeContentText);
+        replaceText();
         invalidate();
     }
 
@@ -697,7 +1387,10 @@ public class ShowcaseView extends RelativeLayout
      */
     public void setShouldCentreText(boolean shouldCentreText) {
         this.shouldCentreText = shouldCentreText;
-        hasAlteredText = true;
+        if (getWidth() > 0) {
+            textDrawer.prepareLayouts(getWidth(), shouldCentreText);
+        }
+        replaceText();
         invalidate();
     }
 
@@ -724,7 +1417,7 @@ public class ShowcaseView extends RelativeLayout
      */
     public void setDetailTextAlignment(Layout.Alignment textAlignment) {
         textDrawer.setDetailTextAlignment(textAlignment);
-        hasAlteredText = true;
+        replaceText();
         invalidate();
     }
 
@@ -733,7 +1426,7 @@ public class ShowcaseView extends RelativeLayout
      */
     public void setTitleTextAlignment(Layout.Alignment textAlignment) {
         textDrawer.setTitleTextAlignment(textAlignment);
-        hasAlteredText = true;
+        replaceText();
         invalidate();
     }
 
@@ -747,7 +1440,7 @@ public class ShowcaseView extends RelativeLayout
 
     public void forceTextPosition(@TextPosition int textPosition) {
         textDrawer.forceTextPosition(textPosition);
-        hasAlteredText = true;
+        replaceText();
         invalidate();
     }
 
@@ -801,13 +1494,13 @@ public class ShowcaseView extends RelativeLayout
 
         styled.recycle();
 
-        showcaseDrawer.setShowcaseColour(showcaseColor);
-        showcaseDrawer.setBackgroundColour(backgroundColor);
+        showcaseRenderer.setShowcaseColour(showcaseColor);
+        showcaseRenderer.setBackgroundColour(backgroundColor);
         tintButton(showcaseColor, tintButton);
         mEndButton.setText(buttonText);
         textDrawer.setTitleStyling(titleTextAppearance);
         textDrawer.setDetailStyling(detailTextAppearance);
-        hasAlteredText = true;
+        replaceText();
 
         if (invalidate) {
             invalidate();
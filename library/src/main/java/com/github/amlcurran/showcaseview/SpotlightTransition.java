@@ -0,0 +1,138 @@
+/*
+ * Copyright 2014 Alex Curran
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.amlcurran.showcaseview;
+
+import android.animation.ValueAnimator;
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.view.animation.AnimationUtils;
+
+/**
+ * Moves the showcase of a ShowcaseView towards a target with a critically damped spring.
+ * Retargeting it while moving changes the target and keeps the current velocity, so quickly
+ * skipping through a tour curves smoothly between targets rather than starting over. If
+ * something else moves the showcase, the move stops.
+ */
+@TargetApi(Build.VERSION_CODES.HONEYCOMB)
+class SpotlightTransition implements ValueAnimator.AnimatorUpdateListener, AnimationFactory.MoveAnimation {
+
+    // Settles to within 1% of the distance in about 330ms
+    private static final float ANGULAR_FREQUENCY = 20f;
+    private static final float MAX_FRAME_SECONDS = 0.05f;
+    private static final float SETTLED_DISTANCE = 0.5f;
+    private static final float SETTLED_VELOCITY = 10f;
+
+    private final ShowcaseView showcaseView;
+    private final ValueAnimator animator;
+    private final FrameStatsTracker frameStats;
+    private final AnimationStatsListener statsListener;
+
+    private float positionX;
+    private float positionY;
+    private float velocityX;
+    private float velocityY;
+    private int targetX;
+    private int targetY;
+    private long lastFrameTime;
+    private int lastPositionVersion;
+
+    SpotlightTransition(ShowcaseView showcaseView, AnimationStatsListener statsListener) {
+        this.showcaseView = showcaseView;
+        this.statsListener = statsListener;
+        animator = ValueAnimator.ofFloat(0f, 1f);
+        animator.setRepeatCount(ValueAnimator.INFINITE);
+        animator.addUpdateListener(this);
+        frameStats = new FrameStatsTracker(showcaseView.getContext(), AnimationStatsListener.ANIMATION_MOVE);
+        frameStats.attach(animator);
+    }
+
+    /**
+     * Move the showcase to a point in window coordinates, or retarget the move in flight
+     */
+    void animateTo(int x, int y) {
+        targetX = x;
+        targetY = y;
+        if (!animator.isStarted()) {
+            positionX = showcaseView.getShowcaseX();
+            positionY = showcaseView.getShowcaseY();
+            velocityX = 0;
+            velocityY = 0;
+            lastFrameTime = AnimationUtils.currentAnimationTimeMillis();
+            lastPositionVersion = showcaseView.getPositionVersion();
+            frameStats.setListener(statsListener);
+            animator.start();
+        }
+    }
+
+    @Override
+    public boolean retarget(int x, int y) {
+        if (!animator.isStarted()) {
+            return false;
+        }
+        animateTo(x, y);
+        return true;
+    }
+
+    @Override
+    public void cancel() {
+        animator.cancel();
+    }
+
+    @Override
+    public void onAnimationUpdate(ValueAnimator animation) {
+        if (showcaseView.getPositionVersion() != lastPositionVersion) {
+            // The showcase was moved by something else, which takes over
+            animator.cancel();
+            return;
+        }
+
+        long now = AnimationUtils.currentAnimationTimeMillis();
+        float seconds = Math.min(MAX_FRAME_SECONDS, Math.max(0, now - lastFrameTime) / 1000f);
+        lastFrameTime = now;
+
+        step(seconds);
+        boolean settled = Math.abs(targetX - positionX) < SETTLED_DISTANCE
+                && Math.abs(targetY - positionY) < SETTLED_DISTANCE
+                && Math.abs(velocityX) < SETTLED_VELOCITY && Math.abs(velocityY) < SETTLED_VELOCITY;
+        if (settled) {
+            animator.cancel();
+            showcaseView.setShowcasePosition(targetX, targetY);
+        } else {
+            showcaseView.setShowcasePosition(Math.round(positionX), Math.round(positionY));
+        }
+        lastPositionVersion = showcaseView.getPositionVersion();
+    }
+
+    /**
+     * Advance both axes with the exact solution of a critically damped spring, which is stable
+     * for any frame length
+     */
+    private void step(float seconds) {
+        float decay = (float) Math.exp(-ANGULAR_FREQUENCY * seconds);
+
+        float offsetX = positionX - targetX;
+        float slopeX = velocityX + ANGULAR_FREQUENCY * offsetX;
+        positionX = targetX + (offsetX + slopeX * seconds) * decay;
+        velocityX = (velocityX - ANGULAR_FREQUENCY * slopeX * seconds) * decay;
+
+        float offsetY = positionY - targetY;
+        float slopeY = velocityY + ANGULAR_FREQUENCY * offsetY;
+        positionY = targetY + (offsetY + slopeY * seconds) * decay;
+        velocityY = (velocityY - ANGULAR_FREQUENCY * slopeY * seconds) * decay;
+    }
+
+}
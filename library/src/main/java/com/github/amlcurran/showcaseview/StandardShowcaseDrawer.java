@@ -19,19 +19,24 @@ package com.github.amlcurran.showcaseview;
 import android.content.res.Resources;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.PorterDuff;
 import android.graphics.PorterDuffXfermode;
-import android.graphics.drawable.Drawable;
-import android.support.v4.content.res.ResourcesCompat;
+import android.graphics.Rect;
+import android.graphics.RectF;
 
-class StandardShowcaseDrawer implements ShowcaseDrawer {
+class StandardShowcaseDrawer implements ShowcaseDrawer, ShowcaseRenderer {
 
     protected final Paint eraserPaint;
-    protected final Drawable showcaseDrawable;
     private final Paint basicPaint;
     private final float showcaseRadius;
+    private final Resources resources;
+    private final Resources.Theme theme;
     protected int backgroundColour;
+    private int showcaseColour = Color.WHITE;
+    private Bitmap showcaseSprite;
+    private final RectF spriteBounds = new RectF();
 
     public StandardShowcaseDrawer(Resources resources, Resources.Theme theme) {
         PorterDuffXfermode xfermode = new PorterDuffXfermode(PorterDuff.Mode.MULTIPLY);
@@ -40,38 +45,81 @@ class StandardShowcaseDrawer implements ShowcaseDrawer {
         eraserPaint.setAlpha(0);
         eraserPaint.setXfermode(xfermode);
         eraserPaint.setAntiAlias(true);
-        basicPaint = new Paint();
+        basicPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
         showcaseRadius = resources.getDimension(R.dimen.showcase_radius);
-        showcaseDrawable = ResourcesCompat.getDrawable(resources, R.drawable.cling_bleached, theme);
+        this.resources = resources;
+        this.theme = theme;
     }
 
     @Override
     public void setShowcaseColour(int color) {
-        showcaseDrawable.setColorFilter(color, PorterDuff.Mode.MULTIPLY);
+        if (color != showcaseColour) {
+            showcaseColour = color;
+            showcaseSprite = null;
+        }
+    }
+
+    /**
+     * The cling is only loaded when it's first needed, as subclasses may not draw it
+     */
+    private Bitmap getShowcaseSprite() {
+        if (showcaseSprite == null) {
+            showcaseSprite = ClingSpriteCache.getSprite(resources, theme, showcaseColour);
+        }
+        return showcaseSprite;
     }
 
     @Override
     public void drawShowcase(Bitmap buffer, float x, float y, float scaleMultiplier) {
-        Canvas bufferCanvas = new Canvas(buffer);
-        bufferCanvas.drawCircle(x, y, showcaseRadius, eraserPaint);
-        int halfW = getShowcaseWidth() / 2;
-        int halfH = getShowcaseHeight() / 2;
-        int left = (int) (x - halfW);
-        int top = (int) (y - halfH);
-        showcaseDrawable.setBounds(left, top,
-                left + getShowcaseWidth(),
-                top + getShowcaseHeight());
-        showcaseDrawable.draw(bufferCanvas);
+        drawShowcase(new Canvas(buffer), x, y, scaleMultiplier);
+    }
+
+    @Override
+    public void draw(Canvas canvas, float x, float y, float scaleMultiplier) {
+        erase(canvas);
+        drawShowcase(canvas, x, y, scaleMultiplier);
+    }
+
+    public void drawShowcase(Canvas canvas, float x, float y, float scaleMultiplier) {
+        if (scaleMultiplier <= 0) {
+            return;
+        }
+        canvas.drawCircle(x, y, showcaseRadius * scaleMultiplier, eraserPaint);
+        if (scaleMultiplier == 1f) {
+            int halfW = getShowcaseWidth() / 2;
+            int halfH = getShowcaseHeight() / 2;
+            int left = (int) (x - halfW);
+            int top = (int) (y - halfH);
+            canvas.drawBitmap(getShowcaseSprite(), left, top, basicPaint);
+        } else {
+            float halfW = getShowcaseWidth() * scaleMultiplier / 2;
+            float halfH = getShowcaseHeight() * scaleMultiplier / 2;
+            spriteBounds.set(x - halfW, y - halfH, x + halfW, y + halfH);
+            canvas.drawBitmap(getShowcaseSprite(), null, spriteBounds, basicPaint);
+        }
+    }
+
+    @Override
+    public boolean getDamageBounds(float x, float y, float scaleMultiplier, Rect outBounds) {
+        float scale = Math.max(1f, scaleMultiplier);
+        float halfW = getShowcaseWidth() * scale / 2;
+        float halfH = getShowcaseHeight() * scale / 2;
+        float radius = showcaseRadius * scale;
+        outBounds.set((int) Math.floor(x - halfW), (int) Math.floor(y - halfH),
+                (int) Math.ceil(x + halfW), (int) Math.ceil(y + halfH));
+        outBounds.union((int) Math.floor(x - radius), (int) Math.floor(y - radius),
+                (int) Math.ceil(x + radius), (int) Math.ceil(y + radius));
+        return true;
     }
 
     @Override
     public int getShowcaseWidth() {
-        return showcaseDrawable.getIntrinsicWidth();
+        return getShowcaseSprite().getWidth();
     }
 
     @Override
     public int getShowcaseHeight() {
-        return showcaseDrawable.getIntrinsicHeight();
+        return getShowcaseSprite().getHeight();
     }
 
     @Override
@@ -89,6 +137,25 @@ class StandardShowcaseDrawer implements ShowcaseDrawer {
         bitmapBuffer.eraseColor(backgroundColour);
     }
 
+    public void erase(Canvas canvas) {
+        canvas.drawColor(backgroundColour, PorterDuff.Mode.SRC);
+    }
+
+    @Override
+    public boolean needsOffscreenBuffer() {
+        return false;
+    }
+
+    @Override
+    public boolean isOpaque() {
+        return false;
+    }
+
+    @Override
+    public boolean isSingleColour() {
+        return false;
+    }
+
     @Override
     public void drawToCanvas(Canvas canvas, Bitmap bitmapBuffer) {
         canvas.drawBitmap(bitmapBuffer, 0, 0, basicPaint);
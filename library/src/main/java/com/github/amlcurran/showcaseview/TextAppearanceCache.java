@@ -0,0 +1,58 @@
+/*
+ * Copyright 2014 Alex Curran
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.amlcurran.showcaseview;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.text.style.TextAppearanceSpan;
+import android.util.SparseArray;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Process-wide cache of resolved text appearances. Resolving a TextAppearanceSpan reads the
+ * style's attributes and loads its typeface and colours, so a tour of showcases in the same
+ * activity shares one span per style rather than resolving it for each showcase. Spans are
+ * immutable, so they can be shared freely.
+ */
+class TextAppearanceCache {
+
+    // A style can resolve differently in each theme, so spans are kept per theme. Themes
+    // belong to their activity, so they are held weakly and dropped along with it
+    private static final Map<Resources.Theme, SparseArray<TextAppearanceSpan>> SPANS =
+            new WeakHashMap<Resources.Theme, SparseArray<TextAppearanceSpan>>();
+
+    /**
+     * Get the resolved text appearance for a style, in the context's theme
+     */
+    static synchronized TextAppearanceSpan getSpan(Context context, int styleId) {
+        Resources.Theme theme = context.getTheme();
+        SparseArray<TextAppearanceSpan> themeSpans = SPANS.get(theme);
+        if (themeSpans == null) {
+            themeSpans = new SparseArray<TextAppearanceSpan>();
+            SPANS.put(theme, themeSpans);
+        }
+        TextAppearanceSpan span = themeSpans.get(styleId);
+        if (span == null) {
+            span = new TextAppearanceSpan(context, styleId);
+            themeSpans.put(styleId, span);
+        }
+        return span;
+    }
+
+}
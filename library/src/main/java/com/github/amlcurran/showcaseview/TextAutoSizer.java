@@ -0,0 +1,187 @@
+/*
+ * Copyright 2014 Alex Curran
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.amlcurran.showcaseview;
+
+import android.support.v4.util.LruCache;
+import android.text.Layout;
+import android.text.SpannableString;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.text.style.MetricAffectingSpan;
+import android.text.style.RelativeSizeSpan;
+
+/**
+ * Shrinks text until it fits in an area, finding the largest text size which fits with a binary
+ * search. The height of the text at each width and size is remembered, so when only the
+ * available height changes, such as while the showcase moves, the search is only lookups. The
+ * same resized instance is returned for each text and size so that its layouts can be cached too.
+ * The whole text is scaled, so inline size changes in rich text keep their proportions
+ */
+class TextAutoSizer {
+
+    private static final int MAX_HEIGHTS = 128;
+    private static final int MAX_SIZED = 16;
+    // Stands for the text at the size its own styling gives it
+    private static final int NATURAL_SIZE = 0;
+
+    private final LruCache<HeightKey, Integer> heights = new LruCache<HeightKey, Integer>(MAX_HEIGHTS);
+    private final LruCache<SizedKey, SpannableString> sized = new LruCache<SizedKey, SpannableString>(MAX_SIZED);
+    private final TextPaint measurePaint = new TextPaint();
+    private final int minTextSize;
+
+    TextAutoSizer(int minTextSize) {
+        this.minTextSize = minTextSize;
+    }
+
+    /**
+     * @return the text if it already fits, otherwise a copy of it with its size reduced until it
+     * fits, or to the minimum text size if it never does
+     */
+    public CharSequence fit(SpannableString text, TextPaint paint, int width, int availableHeight,
+                            Layout.Alignment alignment, float spacingMult, float spacingAdd) {
+        int naturalSize = (int) getTextSize(text, paint);
+        if (naturalSize <= minTextSize || measureHeight(text, NATURAL_SIZE, naturalSize, paint, width, alignment,
+                spacingMult, spacingAdd) <= availableHeight) {
+            return text;
+        }
+
+        int low = minTextSize;
+        int high = naturalSize - 1;
+        int best = minTextSize;
+        while (low <= high) {
+            int size = (low + high) >>> 1;
+            if (measureHeight(text, size, naturalSize, paint, width, alignment, spacingMult, spacingAdd) <= availableHeight) {
+                best = size;
+                low = size + 1;
+            } else {
+                high = size - 1;
+            }
+        }
+        return withSize(text, best, naturalSize);
+    }
+
+    /**
+     * The size of the body of the text, once the styling spans which cover all of it have been
+     * applied to the paint. Spans over part of the text, such as {@code <big>}, are left out
+     */
+    private float getTextSize(SpannableString text, TextPaint paint) {
+        measurePaint.set(paint);
+        for (MetricAffectingSpan span : text.getSpans(0, text.length(), MetricAffectingSpan.class)) {
+            if (text.getSpanStart(span) == 0 && text.getSpanEnd(span) == text.length()) {
+                span.updateMeasureState(measurePaint);
+            }
+        }
+        return measurePaint.getTextSize();
+    }
+
+    private int measureHeight(SpannableString text, int size, int naturalSize, TextPaint paint, int width,
+                              Layout.Alignment alignment, float spacingMult, float spacingAdd) {
+        HeightKey key = new HeightKey(text, paint, width, size, alignment);
+        Integer height = heights.get(key);
+        if (height == null) {
+            CharSequence measured = size == NATURAL_SIZE ? text : withSize(text, size, naturalSize);
+            StaticLayout layout = new StaticLayout(measured, paint, width, alignment, spacingMult, spacingAdd, true);
+            height = layout.getHeight();
+            heights.put(key, height);
+        }
+        return height;
+    }
+
+    /**
+     * @return the text scaled so its body is drawn at a size, rather than its natural size
+     */
+    private SpannableString withSize(SpannableString text, int size, int naturalSize) {
+        SizedKey key = new SizedKey(text, size);
+        SpannableString result = sized.get(key);
+        if (result == null) {
+            result = new SpannableString(text);
+            // Applied after the styling and inline spans, so it scales the size they give
+            result.setSpan(new RelativeSizeSpan(size / (float) naturalSize), 0, result.length(), 0);
+            sized.put(key, result);
+        }
+        return result;
+    }
+
+    private static class HeightKey {
+
+        private final CharSequence text;
+        private final TextPaint paint;
+        private final int width;
+        private final int size;
+        private final Layout.Alignment alignment;
+
+        HeightKey(CharSequence text, TextPaint paint, int width, int size, Layout.Alignment alignment) {
+            this.text = text;
+            this.paint = paint;
+            this.width = width;
+            this.size = size;
+            this.alignment = alignment;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof HeightKey)) {
+                return false;
+            }
+            HeightKey key = (HeightKey) o;
+            return text == key.text && paint == key.paint && width == key.width
+                    && size == key.size && alignment == key.alignment;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(text);
+            result = 31 * result + System.identityHashCode(paint);
+            result = 31 * result + width;
+            result = 31 * result + size;
+            result = 31 * result + alignment.hashCode();
+            return result;
+        }
+    }
+
+    private static class SizedKey {
+
+        private final CharSequence text;
+        private final int size;
+
+        SizedKey(CharSequence text, int size) {
+            this.text = text;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SizedKey)) {
+                return false;
+            }
+            SizedKey key = (SizedKey) o;
+            return text == key.text && size == key.size;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(text) + size;
+        }
+    }
+
+}
@@ -16,17 +16,22 @@
 
 package com.github.amlcurran.showcaseview;
 
+import android.annotation.TargetApi;
 import android.content.Context;
 import android.content.res.Resources;
 import android.graphics.Canvas;
+import android.graphics.Picture;
 import android.graphics.Rect;
-import android.text.DynamicLayout;
+import android.os.Build;
 import android.text.Layout;
 import android.text.SpannableString;
+import android.text.Spanned;
+import android.text.StaticLayout;
 import android.text.TextPaint;
 import android.text.TextUtils;
 import android.text.style.MetricAffectingSpan;
 import android.text.style.TextAppearanceSpan;
+import android.util.SparseIntArray;
 
 /**
  * Draws the text as required by the ShowcaseView
@@ -36,31 +41,65 @@ class TextDrawer {
     private static final int INDEX_TEXT_START_X = 0;
     private static final int INDEX_TEXT_START_Y = 1;
     private static final int INDEX_TEXT_WIDTH = 2;
+    private static final float TITLE_SPACING_MULT = 1.0f;
+    private static final float TEXT_SPACING_MULT = 1.2f;
+    private static final float SPACING_ADD = 1.0f;
+    // The highest priority makes styling spans apply before the text's own spans, so bold,
+    // colour and other spans in rich text aren't overridden by the TextAppearance
+    private static final int STYLE_SPAN_FLAGS = Spanned.SPAN_PRIORITY;
+    // Placement measures the text at widths rounded down to this step, so a moving showcase
+    // reuses the measurements from nearby positions
+    private static final int MEASURE_WIDTH_STEP = 16;
+    // The text isn't shrunk until it has been placed and the height available to it is known
+    private static final int UNKNOWN_HEIGHT = Integer.MAX_VALUE;
 
-    private final TextPaint titlePaint;
-    private final TextPaint textPaint;
     private final Context context;
     private final float padding;
     private final float actionBarOffset;
+    private final TextLayoutCache layoutCache = new TextLayoutCache();
+    private final TextAutoSizer autoSizer;
+    private final ApiUtils apiUtils = new ApiUtils();
+
+    // Paints and strings are replaced rather than changed, so they can be laid out in the background
+    private TextPaint titlePaint;
+    private TextPaint textPaint;
 
     private Layout.Alignment textAlignment = Layout.Alignment.ALIGN_NORMAL;
+    private CharSequence contentText;
     private SpannableString textString;
-    private DynamicLayout textLayout;
+    private Layout textLayout;
     private MetricAffectingSpan textSpan;
 
     private Layout.Alignment titleAlignment = Layout.Alignment.ALIGN_NORMAL;
+    private CharSequence titleText;
     private SpannableString titleString;
-    private DynamicLayout titleLayout;
+    private Layout titleLayout;
     private MetricAffectingSpan titleSpan;
 
     private float[] mBestTextPosition = new float[3];
-    private boolean hasRecalculated;
+    private final float[] candidatePosition = new float[3];
+    // Heights of the text at each measured width, for choosing where to place it
+    private final SparseIntArray titleHeights = new SparseIntArray();
+    private final SparseIntArray textHeights = new SparseIntArray();
+    // The title and detail are laid out separately, so changing one keeps the other's layout
+    private boolean titleNeedsLayout;
+    private boolean textNeedsLayout;
+    private int layoutWidth = -1;
+    private int preparedCanvasWidth = -1;
+    private boolean preparedCentreText;
+    private boolean autoSizeText;
+    private int availableTextHeight = UNKNOWN_HEIGHT;
+    private Picture textPicture;
+    private Layout pictureTitleLayout;
+    private Layout pictureTextLayout;
+    private int contentVersion;
     @ShowcaseView.TextPosition
     private int forcedTextPosition = ShowcaseView.UNDEFINED;
 
     public TextDrawer(Resources resources, Context context) {
         padding = resources.getDimension(R.dimen.text_padding);
         actionBarOffset = resources.getDimension(R.dimen.action_bar_offset);
+        autoSizer = new TextAutoSizer(resources.getDimensionPixelSize(R.dimen.min_auto_text_size));
 
         this.context = context;
 
@@ -74,139 +113,428 @@ class TextDrawer {
     public void draw(Canvas canvas) {
         if (shouldDrawText()) {
             float[] textPosition = getBestTextPosition();
-            int width = Math.max(0, (int) mBestTextPosition[INDEX_TEXT_WIDTH]);
-
-            if (!TextUtils.isEmpty(titleString)) {
-                canvas.save();
-                if (hasRecalculated) {
-                    titleLayout = new DynamicLayout(titleString, titlePaint,
-                                                            width, titleAlignment, 1.0f, 1.0f, true);
-                }
-                if (titleLayout != null) {
-                    canvas.translate(textPosition[INDEX_TEXT_START_X], textPosition[INDEX_TEXT_START_Y]);
-                    titleLayout.draw(canvas);
-                    canvas.restore();
-                }
+            ensureLayouts();
+
+            canvas.save();
+            canvas.translate(textPosition[INDEX_TEXT_START_X], textPosition[INDEX_TEXT_START_Y]);
+            if (canDrawPicture(canvas)) {
+                ensureTextPicture();
+                canvas.drawPicture(textPicture);
+            } else {
+                drawLayouts(canvas);
             }
+            canvas.restore();
+        }
+    }
+
+    private void drawLayouts(Canvas canvas) {
+        if (titleLayout != null) {
+            titleLayout.draw(canvas);
+        }
 
-            if (!TextUtils.isEmpty(textString)) {
-                canvas.save();
-                if (hasRecalculated) {
-                    textLayout = new DynamicLayout(textString, textPaint,
-                                                             width, textAlignment, 1.2f, 1.0f, true);
-                }
-                float offsetForTitle = titleLayout != null ? titleLayout.getHeight() : 0;
-                if (textLayout != null) {
-                    canvas.translate(textPosition[INDEX_TEXT_START_X], textPosition[INDEX_TEXT_START_Y] + offsetForTitle);
-                    textLayout.draw(canvas);
-                    canvas.restore();
-                }
+        if (textLayout != null) {
+            canvas.save();
+            canvas.translate(0, getTitleHeight());
+            textLayout.draw(canvas);
+            canvas.restore();
+        }
+    }
 
+    /**
+     * Hardware accelerated canvases can only draw Pictures from Marshmallow
+     */
+    @TargetApi(Build.VERSION_CODES.HONEYCOMB)
+    private boolean canDrawPicture(Canvas canvas) {
+        return !apiUtils.isCompatWithHoneycomb() || !canvas.isHardwareAccelerated()
+                || apiUtils.isCompatWith(Build.VERSION_CODES.M);
+    }
+
+    /**
+     * Record the text into a Picture, so frames where the text hasn't changed, such as those
+     * of a fade, replay it rather than drawing the layouts again. It is recorded again whenever
+     * the layouts change
+     */
+    private void ensureTextPicture() {
+        if (textPicture != null && pictureTitleLayout == titleLayout && pictureTextLayout == textLayout) {
+            return;
+        }
+        int height = getTitleHeight() + getDetailHeight();
+        textPicture = new Picture();
+        drawLayouts(textPicture.beginRecording(Math.max(1, layoutWidth), Math.max(1, height)));
+        textPicture.endRecording();
+        pictureTitleLayout = titleLayout;
+        pictureTextLayout = textLayout;
+    }
+
+    /**
+     * Find the text layouts if the text, its styling, or the width available to it has changed.
+     * Moving the text without changing its width reuses the existing layouts, and returning to
+     * a recent width reuses the layouts from then. Changing only the title or only the detail
+     * keeps the other's layout
+     */
+    private void ensureLayouts() {
+        int width = getTextWidth();
+        if (titleNeedsLayout) {
+            ensureTitleLayout(width);
+        }
+        if (textNeedsLayout) {
+            ensureTextLayout(width);
+        }
+        layoutWidth = width;
+    }
+
+    private void ensureTitleLayout(int width) {
+        if (!TextUtils.isEmpty(titleString)) {
+            titleLayout = layoutCache.get(titleString, titlePaint, width, titleAlignment,
+                    TITLE_SPACING_MULT, SPACING_ADD);
+        } else {
+            titleLayout = null;
+        }
+        titleNeedsLayout = false;
+        contentVersion++;
+    }
+
+    private void ensureTextLayout(int width) {
+        if (!TextUtils.isEmpty(textString)) {
+            CharSequence detail = textString;
+            if (autoSizeText) {
+                detail = autoSizer.fit(textString, textPaint, width, availableTextHeight, textAlignment,
+                        TEXT_SPACING_MULT, SPACING_ADD);
             }
+            textLayout = layoutCache.get(detail, textPaint, width, textAlignment,
+                    TEXT_SPACING_MULT, SPACING_ADD);
+        } else {
+            textLayout = null;
+        }
+        textNeedsLayout = false;
+        contentVersion++;
+    }
+
+    /**
+     * @return a number which changes whenever what {@link #draw(Canvas)} draws changes, so that
+     * anything the text has been drawn into knows when to draw it again
+     */
+    public int getContentVersion() {
+        ensureLayouts();
+        return contentVersion;
+    }
+
+    private int getTextWidth() {
+        return toLayoutWidth(mBestTextPosition[INDEX_TEXT_WIDTH]);
+    }
+
+    private static int toLayoutWidth(float textWidth) {
+        return Math.max(0, (int) textWidth);
+    }
+
+    /**
+     * Lay the text out in the background, so that the first draw doesn't have to. Text above or
+     * below the showcase is as wide as the screen wherever the showcase is, so that width is
+     * prepared along with the current width. Changing the text prepares it again
+     *
+     * @param canvasW          width of the screen
+     * @param shouldCentreText whether the text is centred
+     */
+    public void prepareLayouts(int canvasW, boolean shouldCentreText) {
+        preparedCanvasWidth = canvasW;
+        preparedCentreText = shouldCentreText;
+        prepareLayouts(toLayoutWidth(getFullTextWidth(canvasW, shouldCentreText)));
+        if (layoutWidth >= 0) {
+            prepareLayouts(layoutWidth);
+        }
+    }
+
+    private void prepareLayouts(int width) {
+        if (!TextUtils.isEmpty(titleString)) {
+            layoutCache.prepare(titleString, titlePaint, width, titleAlignment,
+                    TITLE_SPACING_MULT, SPACING_ADD);
+        }
+        if (!TextUtils.isEmpty(textString)) {
+            layoutCache.prepare(textString, textPaint, width, textAlignment,
+                    TEXT_SPACING_MULT, SPACING_ADD);
+        }
+    }
+
+    private void prepareChangedText() {
+        if (preparedCanvasWidth > 0) {
+            prepareLayouts(preparedCanvasWidth, preparedCentreText);
+        }
+    }
+
+    private float getFullTextWidth(int canvasW, boolean shouldCentreText) {
+        float width = canvasW - 2 * padding;
+        return shouldCentreText ? width / 2 : width;
+    }
+
+    /**
+     * Calculate the area the text will be drawn in at its current position
+     * @param outBounds the rect to put the bounds into, which is empty if there is no text
+     */
+    public void getTextBounds(Rect outBounds) {
+        if (!shouldDrawText()) {
+            outBounds.setEmpty();
+            return;
+        }
+        ensureLayouts();
+        setBlockBounds(0, getTitleHeight() + getDetailHeight(), outBounds);
+    }
+
+    /**
+     * Calculate the area the detail text will be drawn in at its current position, which is all
+     * that changes when only the detail text changes
+     * @param outBounds the rect to put the bounds into, which is empty if there is no detail text
+     */
+    public void getDetailBounds(Rect outBounds) {
+        if (!shouldDrawText()) {
+            outBounds.setEmpty();
+            return;
+        }
+        ensureLayouts();
+        int detailHeight = getDetailHeight();
+        if (detailHeight == 0) {
+            outBounds.setEmpty();
+            return;
         }
-        hasRecalculated = false;
+        int titleHeight = getTitleHeight();
+        setBlockBounds(titleHeight, titleHeight + detailHeight, outBounds);
+    }
+
+    private void setBlockBounds(int blockTop, int blockBottom, Rect outBounds) {
+        float left = mBestTextPosition[INDEX_TEXT_START_X];
+        float top = mBestTextPosition[INDEX_TEXT_START_Y];
+        outBounds.set((int) Math.floor(left), (int) Math.floor(top + blockTop),
+                (int) Math.ceil(left + layoutWidth), (int) Math.ceil(top + blockBottom));
+    }
+
+    private int getTitleHeight() {
+        return titleLayout != null ? titleLayout.getHeight() : 0;
+    }
+
+    private int getDetailHeight() {
+        return textLayout != null ? textLayout.getHeight() : 0;
     }
 
     public void setContentText(CharSequence details) {
         if (details != null) {
+            contentText = details;
             SpannableString ssbDetail = new SpannableString(details);
-            ssbDetail.setSpan(textSpan, 0, ssbDetail.length(), 0);
+            ssbDetail.setSpan(textSpan, 0, ssbDetail.length(), STYLE_SPAN_FLAGS);
             textString = ssbDetail;
-            hasRecalculated = true;
+            textNeedsLayout = true;
+            textHeights.clear();
+            prepareChangedText();
         }
     }
 
     public void setContentTitle(CharSequence title) {
         if (title != null) {
+            titleText = title;
             SpannableString ssbTitle = new SpannableString(title);
-            ssbTitle.setSpan(titleSpan, 0, ssbTitle.length(), 0);
+            ssbTitle.setSpan(titleSpan, 0, ssbTitle.length(), STYLE_SPAN_FLAGS);
             titleString = ssbTitle;
-            hasRecalculated = true;
+            titleNeedsLayout = true;
+            titleHeights.clear();
+            prepareChangedText();
         }
     }
 
     /**
-     * Calculates the best place to position text
+     * Calculates the best place to position text. Unless a position has been forced, the areas
+     * around the showcase are tried from largest to smallest, and the text goes in the first one
+     * it fits in. The text's height at each width is remembered, so while the showcase moves
+     * this is mostly lookups
      *  @param canvasW width of the screen
      * @param canvasH height of the screen
      * @param shouldCentreText
      * @param showcase
      */
     public void calculateTextPosition(int canvasW, int canvasH, boolean shouldCentreText, Rect showcase) {
+        int position = forcedTextPosition;
+        if (position == ShowcaseView.UNDEFINED) {
+            position = findBestPosition(canvasW, canvasH, shouldCentreText, showcase);
+        }
+        float oldX = mBestTextPosition[INDEX_TEXT_START_X];
+        float oldY = mBestTextPosition[INDEX_TEXT_START_Y];
+        positionText(position, canvasW, canvasH, shouldCentreText, showcase, mBestTextPosition);
+        if (oldX != mBestTextPosition[INDEX_TEXT_START_X] || oldY != mBestTextPosition[INDEX_TEXT_START_Y]) {
+            contentVersion++;
+        }
 
+        if (getTextWidth() != layoutWidth) {
+            titleNeedsLayout = true;
+            textNeedsLayout = true;
+        }
+        if (autoSizeText) {
+            int availableHeight = (int) getAvailableHeight(position, canvasH, showcase, mBestTextPosition)
+                    - measureTitleHeight(getTextWidth());
+            if (availableHeight != availableTextHeight) {
+                availableTextHeight = availableHeight;
+                textNeedsLayout = true;
+            }
+        }
+    }
+
+    /**
+     * @return the largest area around the showcase which the text fits in, or if it doesn't fit
+     * anywhere the area it overflows the least
+     */
+    @ShowcaseView.TextPosition
+    private int findBestPosition(int canvasW, int canvasH, boolean shouldCentreText, Rect showcase) {
         int[] areas = new int[4]; //left, top, right, bottom
-    	areas[ShowcaseView.LEFT_OF_SHOWCASE] = showcase.left * canvasH;
-    	areas[ShowcaseView.ABOVE_SHOWCASE] = showcase.top * canvasW;
-    	areas[ShowcaseView.RIGHT_OF_SHOWCASE] = (canvasW - showcase.right) * canvasH;
-    	areas[ShowcaseView.BELOW_SHOWCASE] = (canvasH - showcase.bottom) * canvasW;
-    	
-    	int largest = 0;
-    	for(int i = 1; i < areas.length; i++) {
-    		if(areas[i] > areas[largest])
-    			largest = i;
-    	}
-
-        if (forcedTextPosition != ShowcaseView.UNDEFINED) {
-            largest = forcedTextPosition;
-        }
-
-    	// Position text in largest area
-    	switch(largest) {
-    	case ShowcaseView.LEFT_OF_SHOWCASE:
-    		mBestTextPosition[INDEX_TEXT_START_X] = padding;
-    		mBestTextPosition[INDEX_TEXT_START_Y] = padding;
-    		mBestTextPosition[INDEX_TEXT_WIDTH] = showcase.left - 2 * padding;
-    		break;
-    	case ShowcaseView.ABOVE_SHOWCASE:
-    		mBestTextPosition[INDEX_TEXT_START_X] = padding;
-    		mBestTextPosition[INDEX_TEXT_START_Y] = padding + actionBarOffset;
-    		mBestTextPosition[INDEX_TEXT_WIDTH] = canvasW - 2 * padding;
-    		break;
-    	case ShowcaseView.RIGHT_OF_SHOWCASE:
-    		mBestTextPosition[INDEX_TEXT_START_X] = showcase.right + padding;
-    		mBestTextPosition[INDEX_TEXT_START_Y] = padding;
-    		mBestTextPosition[INDEX_TEXT_WIDTH] = (canvasW - showcase.right) - 2 * padding;
-    		break;
-    	case ShowcaseView.BELOW_SHOWCASE:
-    		mBestTextPosition[INDEX_TEXT_START_X] = padding;
-    		mBestTextPosition[INDEX_TEXT_START_Y] = showcase.bottom + padding;
-    		mBestTextPosition[INDEX_TEXT_WIDTH] = canvasW - 2 * padding;
-    		break;
-    	}
-    	if(shouldCentreText) {
-	    	// Center text vertically or horizontally
-	    	switch(largest) {
-	    	case ShowcaseView.LEFT_OF_SHOWCASE:
-	    	case ShowcaseView.RIGHT_OF_SHOWCASE:
-	    		mBestTextPosition[INDEX_TEXT_START_Y] += canvasH / 4;
-	    		break;
-	    	case ShowcaseView.ABOVE_SHOWCASE:
-	    	case ShowcaseView.BELOW_SHOWCASE:
-	    		mBestTextPosition[INDEX_TEXT_WIDTH] /= 2;
-	    		mBestTextPosition[INDEX_TEXT_START_X] += canvasW / 4;
-	    		break;
-	    	} 
-    	} else {
-    		// As text is not centered add actionbar padding if the text is left or right
-	    	switch(largest) {
-	    		case ShowcaseView.LEFT_OF_SHOWCASE:
-	    		case ShowcaseView.RIGHT_OF_SHOWCASE:
-	    			mBestTextPosition[INDEX_TEXT_START_Y] += actionBarOffset;
-	    			break;
-	    	}
-    	}
-
-        hasRecalculated = true;
+        areas[ShowcaseView.LEFT_OF_SHOWCASE] = showcase.left * canvasH;
+        areas[ShowcaseView.ABOVE_SHOWCASE] = showcase.top * canvasW;
+        areas[ShowcaseView.RIGHT_OF_SHOWCASE] = (canvasW - showcase.right) * canvasH;
+        areas[ShowcaseView.BELOW_SHOWCASE] = (canvasH - showcase.bottom) * canvasW;
+
+        boolean[] tried = new boolean[areas.length];
+        int bestPosition = ShowcaseView.UNDEFINED;
+        float leastOverflow = Float.MAX_VALUE;
+        for (int attempt = 0; attempt < areas.length; attempt++) {
+            int position = findLargestUntried(areas, tried);
+            tried[position] = true;
+            if (bestPosition == ShowcaseView.UNDEFINED) {
+                bestPosition = position;
+            }
+
+            positionText(position, canvasW, canvasH, shouldCentreText, showcase, candidatePosition);
+            int width = toLayoutWidth(candidatePosition[INDEX_TEXT_WIDTH]);
+            if (width == 0) {
+                continue;
+            }
+            float overflow = estimateTextHeight(width)
+                    - getAvailableHeight(position, canvasH, showcase, candidatePosition);
+            if (overflow <= 0) {
+                return position;
+            }
+            if (overflow < leastOverflow) {
+                leastOverflow = overflow;
+                bestPosition = position;
+            }
+        }
+        return bestPosition;
+    }
+
+    @ShowcaseView.TextPosition
+    private static int findLargestUntried(int[] areas, boolean[] tried) {
+        int largest = ShowcaseView.UNDEFINED;
+        for (int i = 0; i < areas.length; i++) {
+            if (!tried[i] && (largest == ShowcaseView.UNDEFINED || areas[i] > areas[largest])) {
+                largest = i;
+            }
+        }
+        return largest;
+    }
+
+    private float getAvailableHeight(@ShowcaseView.TextPosition int position, int canvasH,
+                                     Rect showcase, float[] textPosition) {
+        float bottom = position == ShowcaseView.ABOVE_SHOWCASE ? showcase.top : canvasH;
+        return bottom - padding - textPosition[INDEX_TEXT_START_Y];
+    }
+
+    /**
+     * The height of the text at a width. Layouts prepared in the background at that width,
+     * such as the full width above and below the showcase, are used as they are. Otherwise the
+     * width is rounded down to a multiple of {@link #MEASURE_WIDTH_STEP}. Narrower text is never
+     * shorter, so text which fits at the rounded width fits at the real one. The text is measured
+     * without the layout cache, so that placing the text at many widths doesn't push out the
+     * layouts which are drawn
+     */
+    private int estimateTextHeight(int width) {
+        return measureHeight(titleString, titlePaint, width, titleAlignment,
+                TITLE_SPACING_MULT, titleHeights)
+                + measureHeight(textString, textPaint, width, textAlignment,
+                TEXT_SPACING_MULT, textHeights);
+    }
+
+    private int measureHeight(CharSequence text, TextPaint paint, int width,
+                              Layout.Alignment alignment, float spacingMult, SparseIntArray heights) {
+        if (TextUtils.isEmpty(text)) {
+            return 0;
+        }
+        StaticLayout prepared = layoutCache.peek(text, paint, width, alignment, spacingMult, SPACING_ADD);
+        if (prepared != null) {
+            return prepared.getHeight();
+        }
+        int measureWidth = width < MEASURE_WIDTH_STEP ? width : width - width % MEASURE_WIDTH_STEP;
+        int height = heights.get(measureWidth, -1);
+        if (height < 0) {
+            height = new StaticLayout(text, paint, measureWidth, alignment, spacingMult, SPACING_ADD, true)
+                    .getHeight();
+            heights.put(measureWidth, height);
+        }
+        return height;
+    }
+
+    private int measureTitleHeight(int width) {
+        if (TextUtils.isEmpty(titleString)) {
+            return 0;
+        }
+        return layoutCache.get(titleString, titlePaint, width, titleAlignment,
+                TITLE_SPACING_MULT, SPACING_ADD).getHeight();
+    }
+
+    private void positionText(@ShowcaseView.TextPosition int position, int canvasW, int canvasH,
+                              boolean shouldCentreText, Rect showcase, float[] outPosition) {
+        switch (position) {
+            case ShowcaseView.LEFT_OF_SHOWCASE:
+                outPosition[INDEX_TEXT_START_X] = padding;
+                outPosition[INDEX_TEXT_START_Y] = padding;
+                outPosition[INDEX_TEXT_WIDTH] = showcase.left - 2 * padding;
+                break;
+            case ShowcaseView.ABOVE_SHOWCASE:
+                outPosition[INDEX_TEXT_START_X] = padding;
+                outPosition[INDEX_TEXT_START_Y] = padding + actionBarOffset;
+                outPosition[INDEX_TEXT_WIDTH] = getFullTextWidth(canvasW, false);
+                break;
+            case ShowcaseView.RIGHT_OF_SHOWCASE:
+                outPosition[INDEX_TEXT_START_X] = showcase.right + padding;
+                outPosition[INDEX_TEXT_START_Y] = padding;
+                outPosition[INDEX_TEXT_WIDTH] = (canvasW - showcase.right) - 2 * padding;
+                break;
+            case ShowcaseView.BELOW_SHOWCASE:
+                outPosition[INDEX_TEXT_START_X] = padding;
+                outPosition[INDEX_TEXT_START_Y] = showcase.bottom + padding;
+                outPosition[INDEX_TEXT_WIDTH] = getFullTextWidth(canvasW, false);
+                break;
+        }
+        if (shouldCentreText) {
+            // Center text vertically or horizontally
+            switch (position) {
+                case ShowcaseView.LEFT_OF_SHOWCASE:
+                case ShowcaseView.RIGHT_OF_SHOWCASE:
+                    outPosition[INDEX_TEXT_START_Y] += canvasH / 4;
+                    break;
+                case ShowcaseView.ABOVE_SHOWCASE:
+                case ShowcaseView.BELOW_SHOWCASE:
+                    outPosition[INDEX_TEXT_WIDTH] /= 2;
+                    outPosition[INDEX_TEXT_START_X] += canvasW / 4;
+                    break;
+            }
+        } else {
+            // As text is not centered add actionbar padding if the text is left or right
+            switch (position) {
+                case ShowcaseView.LEFT_OF_SHOWCASE:
+                case ShowcaseView.RIGHT_OF_SHOWCASE:
+                    outPosition[INDEX_TEXT_START_Y] += actionBarOffset;
+                    break;
+            }
+        }
     }
 
     public void setTitleStyling(int styleId) {
-        titleSpan = new TextAppearanceSpan(this.context, styleId);
-        setContentTitle(titleString);
+        TextAppearanceSpan span = TextAppearanceCache.getSpan(context, styleId);
+        if (span != titleSpan) {
+            titleSpan = span;
+            setContentTitle(titleText);
+        }
     }
 
     public void setDetailStyling(int styleId) {
-        textSpan = new TextAppearanceSpan(this.context, styleId);
-        setContentText(textString);
+        TextAppearanceSpan span = TextAppearanceCache.getSpan(context, styleId);
+        if (span != textSpan) {
+            textSpan = span;
+            setContentText(contentText);
+        }
     }
 
     public float[] getBestTextPosition() {
@@ -218,29 +546,44 @@ class TextDrawer {
     }
 
     public void setContentPaint(TextPaint contentPaint) {
-        textPaint.set(contentPaint);
-        if (textString != null) {
-            textString.removeSpan(textSpan);
-        }
+        textPaint = copyPaint(contentPaint);
         textSpan = new NoOpSpan();
-        setContentText(textString);
+        setContentText(contentText);
     }
 
     public void setTitlePaint(TextPaint textPaint) {
-        titlePaint.set(textPaint);
-        if (titleString != null) {
-            titleString.removeSpan(titleSpan);
-        }
+        titlePaint = copyPaint(textPaint);
         titleSpan = new NoOpSpan();
-        setContentTitle(titleString);
+        setContentTitle(titleText);
+    }
+
+    private static TextPaint copyPaint(TextPaint paint) {
+        TextPaint copy = new TextPaint();
+        copy.set(paint);
+        return copy;
     }
 
     public void setDetailTextAlignment(Layout.Alignment textAlignment) {
         this.textAlignment = textAlignment;
+        textNeedsLayout = true;
+        textHeights.clear();
+        prepareChangedText();
     }
 
     public void setTitleTextAlignment(Layout.Alignment titleTextAlignment) {
         this.titleAlignment = titleTextAlignment;
+        titleNeedsLayout = true;
+        titleHeights.clear();
+        prepareChangedText();
+    }
+
+    /**
+     * Shrink the detail text until it fits in the area it is placed in
+     */
+    public void setAutoSizeText(boolean autoSizeText) {
+        this.autoSizeText = autoSizeText;
+        availableTextHeight = UNKNOWN_HEIGHT;
+        textNeedsLayout = true;
     }
 
     public void forceTextPosition(@ShowcaseView.TextPosition int textPosition) {
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2014 Alex Curran
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.amlcurran.showcaseview;
+
+import android.support.v4.util.LruCache;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the most recently used text layouts, so that text which goes back to a width it has
+ * been laid out at before isn't measured again. The text and paint are matched by identity, as
+ * TextDrawer creates new ones whenever their content or styling changes, and never changes them
+ * once created. That also makes it safe to lay them out in the background
+ */
+class TextLayoutCache {
+
+    private static final int MAX_LAYOUTS = 16;
+    private static final int KEEP_ALIVE_SECONDS = 1;
+
+    private static final Executor PREPARE_EXECUTOR = new ThreadPoolExecutor(0, 1,
+            KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "ShowcaseView text");
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    private final LruCache<Key, StaticLayout> layouts = new LruCache<Key, StaticLayout>(MAX_LAYOUTS);
+
+    public StaticLayout get(CharSequence text, TextPaint paint, int width, Layout.Alignment alignment,
+                            float spacingMult, float spacingAdd) {
+        Key key = new Key(text, paint, width, alignment, spacingMult, spacingAdd);
+        StaticLayout layout = layouts.get(key);
+        if (layout == null) {
+            layout = new StaticLayout(text, paint, width, alignment, spacingMult, spacingAdd, true);
+            layouts.put(key, layout);
+        }
+        return layout;
+    }
+
+    /**
+     * @return the layout if it has already been laid out, without laying it out if it hasn't
+     */
+    public StaticLayout peek(CharSequence text, TextPaint paint, int width, Layout.Alignment alignment,
+                             float spacingMult, float spacingAdd) {
+        return layouts.get(new Key(text, paint, width, alignment, spacingMult, spacingAdd));
+    }
+
+    /**
+     * Lay the text out on a background thread, so a later {@link #get} can return it straight
+     * away. If it is needed before the background thread is done, it is laid out as usual
+     */
+    public void prepare(final CharSequence text, final TextPaint paint, final int width,
+                        final Layout.Alignment alignment, final float spacingMult, final float spacingAdd) {
+        if (peek(text, paint, width, alignment, spacingMult, spacingAdd) != null) {
+            return;
+        }
+        PREPARE_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                get(text, paint, width, alignment, spacingMult, spacingAdd);
+            }
+        });
+    }
+
+    private static class Key {
+
+        private final CharSequence text;
+        private final TextPaint paint;
+        private final int width;
+        private final Layout.Alignment alignment;
+        private final float spacingMult;
+        private final float spacingAdd;
+
+        Key(CharSequence text, TextPaint paint, int width, Layout.Alignment alignment,
+            float spacingMult, float spacingAdd) {
+            this.text = text;
+            this.paint = paint;
+            this.width = width;
+            this.alignment = alignment;
+            this.spacingMult = spacingMult;
+            this.spacingAdd = spacingAdd;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return text == key.text && paint == key.paint && width == key.width
+                    && alignment == key.alignment && spacingMult == key.spacingMult
+                    && spacingAdd == key.spacingAdd;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(text);
+            result = 31 * result + System.identityHashCode(paint);
+            result = 31 * result + width;
+            result = 31 * result + alignment.hashCode();
+            result = 31 * result + Float.floatToIntBits(spacingMult);
+            result = 31 * result + Float.floatToIntBits(spacingAdd);
+            return result;
+        }
+    }
+
+}
@@ -18,8 +18,10 @@ package com.github.amlcurran.showcaseview.sample;
 
 import android.app.Activity;
 import android.os.Bundle;
+import android.util.Log;
 
 import com.espian.showcaseview.sample.R;
+import com.github.amlcurran.showcaseview.BitmapPool;
 import com.github.amlcurran.showcaseview.ShowcaseView;
 import com.github.amlcurran.showcaseview.SimpleShowcaseEventListener;
 import com.github.amlcurran.showcaseview.targets.ViewTarget;
@@ -44,6 +46,7 @@ public class MemoryManagementTesting extends Activity {
                         new SimpleShowcaseEventListener() {
                             @Override
                             public void onShowcaseViewDidHide(ShowcaseView showcaseView) {
+                                Log.d("MemoryManagement", BitmapPool.getInstance().toString());
                                 currentShowcase++;
                                 showcase();
                             }